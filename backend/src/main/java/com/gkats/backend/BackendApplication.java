@@ -2,9 +2,11 @@ package com.gkats.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 //import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
 @SpringBootApplication
+@EnableScheduling
 //@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class }) // for testing at first without db connection
 public class BackendApplication {
 
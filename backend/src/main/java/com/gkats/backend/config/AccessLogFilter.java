@@ -0,0 +1,96 @@
+package com.gkats.backend.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The type Access log filter.
+ * Writes one key=value line per sampled request to the {@code access} logger.
+ * Requests are sampled at {@code spring.app.logging.access.sample-rate}; server errors and
+ * requests slower than {@code spring.app.logging.access.slow-threshold} are always logged.
+ * Registered ahead of the security filters, so rejected requests are logged too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+
+    @Value("${spring.app.logging.access.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.app.logging.access.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${spring.app.logging.access.slow-threshold:1s}")
+    private Duration slowThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Async handlers (login, register, export) finish after this thread returns
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start, sampled);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start, sampled);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start, boolean sampled) {
+        long durationNanos = System.nanoTime() - start;
+        int status = response.getStatus();
+        if (!sampled && status < 500 && durationNanos < slowThreshold.toNanos()) {
+            return;
+        }
+        ACCESS_LOG.info("method={} path={} status={} durationMs={} client={} sampled={}",
+                request.getMethod(), request.getRequestURI(), status, durationNanos / 1_000_000,
+                request.getRemoteAddr(), sampled);
+    }
+}
@@ -0,0 +1,21 @@
+package com.gkats.backend.config;
+
+/**
+ * The enum Auth mode.
+ * How {@link JwtAuthenticationFilter} turns a verified bearer token into an authenticated user.
+ */
+public enum AuthMode {
+    /**
+     * Load the user from the database on every request.
+     */
+    LOOKUP,
+    /**
+     * Load the user through {@link UserDetailsCache}, hitting the database only on a miss.
+     */
+    CACHED,
+    /**
+     * Build the user from the token's role and id claims alone. Role changes and deleted
+     * users take effect when the token expires.
+     */
+    CLAIMS
+}
@@ -0,0 +1,127 @@
+package com.gkats.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The type Connection admission gate.
+ * Caps the connections checked out of each Hikari pool with a fair semaphore of the pool's size.
+ * With virtual threads every request gets its own thread, so thousands of them can ask for a
+ * connection at once; the gate makes the excess wait on a cheap semaphore, and fail after a
+ * bounded wait, instead of piling up inside the connection pool.
+ * A permit is taken in {@code getConnection()} and given back when the connection is closed,
+ * so it covers exactly the time a connection is held, whether by a repository call, a whole
+ * transaction, or the primary or replica pool of {@link ReadWriteRoutingDataSource}.
+ * Published per data source bean as {@code db.admission.available} and {@code db.admission.waiting}.
+ */
+@Component
+public class ConnectionAdmissionGate implements BeanPostProcessor, SmartInitializingSingleton {
+
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Semaphore> permitsByDataSource = new LinkedHashMap<>();
+
+    /**
+     * Instantiates the Connection admission gate.
+     *
+     * @param enabled       whether connection pools are gated
+     * @param timeout       how long a thread waits for a connection permit before failing
+     * @param meterRegistry the meter registry, resolved once all beans exist
+     */
+    public ConnectionAdmissionGate(@Value("${spring.app.db.admission.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                   @Value("${spring.app.db.admission.timeout:5s}") Duration timeout,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = enabled;
+        this.timeoutNanos = timeout.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof HikariDataSource dataSource)) {
+            return bean;
+        }
+        // Pool settings are bound by now; the proxy subclasses HikariDataSource so the bean keeps its type
+        Semaphore permits = new Semaphore(dataSource.getMaximumPoolSize(), true);
+        permitsByDataSource.put(beanName, permits);
+        ProxyFactory proxyFactory = new ProxyFactory(dataSource);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                "getConnection".equals(invocation.getMethod().getName())
+                        ? admit(permits, invocation)
+                        : invocation.proceed());
+        return proxyFactory.getProxy();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        meterRegistry.ifAvailable(registry -> permitsByDataSource.forEach((name, permits) -> {
+            Gauge.builder("db.admission.available", permits, Semaphore::availablePermits)
+                    .description("Connection permits not in use")
+                    .tag("datasource", name)
+                    .register(registry);
+            Gauge.builder("db.admission.waiting", permits, Semaphore::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .tag("datasource", name)
+                    .register(registry);
+        }));
+    }
+
+    /**
+     * Check out a connection once a permit is available; the permit goes back when it is closed.
+     *
+     * @throws DataAccessResourceFailureException if no permit became available in time
+     */
+    private Connection admit(Semaphore permits, MethodInvocation getConnection) throws Throwable {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new DataAccessResourceFailureException("Timed out waiting for a database connection permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted waiting for a database connection permit", e);
+        }
+        Connection connection;
+        try {
+            connection = (Connection) getConnection.proceed();
+        } catch (Throwable e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        ProxyFactory proxyFactory = new ProxyFactory(connection);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if (!"close".equals(invocation.getMethod().getName())) {
+                return invocation.proceed();
+            }
+            try {
+                return invocation.proceed();
+            } finally {
+                // Close may be called more than once; only the first gives the permit back
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        });
+        return (Connection) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,91 @@
+package com.gkats.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * The type Data source routing configuration.
+ * With {@code spring.app.datasource.replica.enabled} the application gets two connection pools:
+ * {@code primary}, configured by {@code spring.datasource.*}, and {@code replica}, configured by
+ * {@code spring.app.datasource.replica.*}. Read-only transactions use the replica and everything
+ * else the primary, see {@link ReadWriteRoutingDataSource}. Without it Spring Boot's single
+ * data source is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfiguration {
+
+    /**
+     * The Primary data source.
+     *
+     * @param properties the spring.datasource properties
+     * @return the primary data source
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    /**
+     * The Replica data source.
+     *
+     * @param properties the spring.datasource properties, for the driver
+     * @param url        the replica url
+     * @param username   the replica username
+     * @param password   the replica password
+     * @return the replica data source
+     */
+    @Bean
+    @ConfigurationProperties("spring.app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.app.datasource.replica.url}") String url,
+                                              @Value("${spring.app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${spring.app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The Data source used by JPA and everything else: routes between the two pools and only
+     * fetches a physical connection on the first statement.
+     *
+     * @param primary        the primary data source
+     * @param replica        the replica data source
+     * @param readYourWrites how long a client's reads stay on the primary after its write commits
+     * @param meterRegistry  the meter registry
+     * @return the data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${spring.app.datasource.replica.read-your-writes-window:2s}") Duration readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, readYourWrites, meterRegistry));
+    }
+}
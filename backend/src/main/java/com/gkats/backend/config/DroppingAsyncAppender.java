@@ -0,0 +1,52 @@
+package com.gkats.backend.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The type Dropping async appender.
+ * An {@link AsyncAppender} for {@code neverBlock} mode that counts the events it drops
+ * when its queue is full, instead of dropping them silently. Logback creates appenders
+ * before the application context, so the count is static and bound to the meter
+ * registry by {@link LoggingMetrics}.
+ * The count is exact: producers check for space and enqueue under one lock, so between
+ * the check and the enqueue only the worker touches the queue, and it only frees space.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    // Not synchronized: request threads may be virtual, and must not pin their carrier here
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!isStarted()) {
+            return;
+        }
+        // Format the event outside the lock; the second preprocess in super.append finds it done
+        preprocess(event);
+        enqueueLock.lock();
+        try {
+            if (getRemainingCapacity() == 0) {
+                DROPPED.increment();
+                return;
+            }
+            super.append(event);
+        } finally {
+            enqueueLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of events dropped by all instances since startup.
+     *
+     * @return the count
+     */
+    public static long droppedCount() {
+        return DROPPED.sum();
+    }
+}
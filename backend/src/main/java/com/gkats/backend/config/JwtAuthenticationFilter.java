@@ -1,15 +1,21 @@
 package com.gkats.backend.config;
 
+import com.gkats.backend.model.Role;
+import com.gkats.backend.model.User;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,9 +27,15 @@ import java.io.IOException;
  */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList revocationList;
+
+    @Value("${spring.app.auth.mode:lookup}")
+    private AuthMode authMode;
 
     /**
      *  Do filter internal.
@@ -37,18 +49,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final TokenClaims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        try {
+            // Verified once per request (and served from the verified-token cache on repeats)
+            claims = jwtService.parseToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Ignoring invalid bearer token: {}", e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (claims.isRefreshToken() || revocationList.isRevoked(claims)) {
+            log.debug("Ignoring refresh or revoked bearer token");
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String userEmail = claims.getUsername();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            UserDetails userDetails;
+            try {
+                userDetails = resolveUser(claims);
+            } catch (UsernameNotFoundException e) {
+                log.debug("Ignoring bearer token of unknown user: {}", e.getMessage());
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (userEmail.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -63,4 +95,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
+
+    private UserDetails resolveUser(TokenClaims claims) {
+        switch (authMode) {
+            case CLAIMS:
+                // Tokens issued before the role claim existed still go through the lookup
+                if (claims.getRole() != null) {
+                    return User.builder()
+                            .id(claims.getUserId())
+                            .email(claims.getUsername())
+                            .role(Role.valueOf(claims.getRole()))
+                            .build();
+                }
+                return userDetailsService.loadUserByUsername(claims.getUsername());
+            case CACHED:
+                return userDetailsCache.loadUserByUsername(claims.getUsername());
+            default:
+                return userDetailsService.loadUserByUsername(claims.getUsername());
+        }
+    }
 }
@@ -1,20 +1,35 @@
 package com.gkats.backend.config;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.gkats.backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -23,19 +38,128 @@ import java.util.function.Function;
 @Service
 @Slf4j
 public class JwtService {
+    /**
+     * Claim carrying the user's role, read by the claims authentication mode.
+     */
+    public static final String ROLE_CLAIM = "role";
+    /**
+     * Claim carrying the user's id, read by the claims authentication mode.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+    /**
+     * Claim telling access tokens from refresh tokens.
+     */
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    /**
+     * Token type of refresh tokens.
+     */
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
     @Value("${spring.app.jwt.secret}")
     private String SECRET_KEY;
 
     @Value("${spring.app.jwt.expirationMS}")
     private Long EXPIRATION_MS;
 
+    @Value("${spring.app.jwt.refresh-expirationMS:604800000}")
+    private Long REFRESH_EXPIRATION_MS;
+
+    @Value("${spring.app.jwt.cache.max-size:10000}")
+    private long verifiedTokenCacheSize;
+
+    private final Timer parseCachedTimer;
+    private final Timer parseVerifiedTimer;
+    private final Timer parseRejectedTimer;
+    private final Timer signTimer;
+
+    // Built once: decoding the secret and building a parser on every call dominated token checks
+    private Key signingKey;
+    private JwtParser parser;
+    // Recently verified tokens keyed by SHA-256 of the token, each kept only until the token expires
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    /**
+     * Instantiates the Jwt service.
+     * Token parsing is timed as {@code auth.jwt.parse}, tagged with whether the token came from
+     * the verified-token cache, was verified, or was rejected; signing is timed as {@code auth.jwt.sign}.
+     *
+     * @param meterRegistry the meter registry
+     */
+    public JwtService(MeterRegistry meterRegistry) {
+        this.parseCachedTimer = parseTimer(meterRegistry, "cached");
+        this.parseVerifiedTimer = parseTimer(meterRegistry, "verified");
+        this.parseRejectedTimer = parseTimer(meterRegistry, "rejected");
+        this.signTimer = Timer.builder("auth.jwt.sign")
+                .description("JWT signing latency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build the signing key, the parser and the verified token cache.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verify a token and return its claims, parsing it at most once per cache lifetime.
+     * @param token the token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public TokenClaims parseToken(String token) {
+        long start = System.nanoTime();
+        String key = hash(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                parseCachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            verifiedTokens.invalidate(key);
+            parseRejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new ExpiredJwtException(null, cached.getClaims(), "JWT expired at " + cached.getExpiration());
+        }
+        TokenClaims claims;
+        try {
+            claims = new TokenClaims(extractAllClaims(token));
+        } catch (RuntimeException e) {
+            parseRejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifiedTokens.put(key, claims);
+        parseVerifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
     /**
      * Extract username string.
      * @param token the token
      * @return the username string
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     /**
@@ -46,16 +170,26 @@ public class JwtService {
      * @return the t
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token).getClaims());
     }
     /**
      * Generate token string.
+     * Tokens for application users carry their role and id, so requests can be
+     * authenticated from the verified claims without loading the user.
      * @param userDetails the user details
      * @return the token string
      */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            if (user.getRole() != null) {
+                claims.put(ROLE_CLAIM, user.getRole().name());
+            }
+            if (user.getId() != null) {
+                claims.put(USER_ID_CLAIM, user.getId());
+            }
+        }
+        return generateToken(claims, userDetails);
     }
 
     /**
@@ -67,42 +201,51 @@ public class JwtService {
     public String generateToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails) {
-        return Jwts
-                .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return buildToken(extraClaims, userDetails, EXPIRATION_MS);
     }
+
     /**
-     * Is token valid boolean.
-     * @param token the token
+     * Generate refresh token string.
+     * Refresh tokens are long-lived, carry their own id so they can be revoked on rotation,
+     * and are rejected as bearer tokens.
      * @param userDetails the user details
-     * @return the boolean
+     * @return the refresh token string
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    public String generateRefreshToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        return buildToken(claims, userDetails, REFRESH_EXPIRATION_MS);
     }
 
     /**
-     * Is token expired boolean.
-     * @param token the token
-     * @return the boolean
+     * Get the access token lifetime.
+     * @return the lifetime in milliseconds
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public long getAccessTokenExpirationMs() {
+        return EXPIRATION_MS;
     }
 
+    private String buildToken(Map<String, Object> claims, UserDetails userDetails, long expirationMs) {
+        long now = System.currentTimeMillis();
+        return signTimer.record(() -> Jwts
+                .builder()
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userDetails.getUsername())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact());
+    }
     /**
-     * Extract expiration date.
+     * Is token valid boolean.
      * @param token the token
-     * @return the date
+     * @param userDetails the user details
+     * @return the boolean
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        TokenClaims claims = parseToken(token);
+        return claims.getUsername().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 
     /**
@@ -111,19 +254,32 @@ public class JwtService {
      * @return the claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
-    /**
-     * Get signing key key.
-     * @return the signing key
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.jwt.parse")
+                .description("JWT parsing and verification latency")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static long remainingNanos(TokenClaims claims) {
+        if (claims.getExpiration() == null) {
+            return 0;
+        }
+        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,21 @@
+package com.gkats.backend.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * The type Logging metrics.
+ * Publishes log events dropped by {@link DroppingAsyncAppender} as {@code logging.async.dropped}.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.async.dropped", DroppingAsyncAppender.class, type -> DroppingAsyncAppender.droppedCount())
+                .description("Log events dropped because the async appender queue was full")
+                .register(registry);
+    }
+}
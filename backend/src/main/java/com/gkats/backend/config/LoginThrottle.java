@@ -0,0 +1,124 @@
+package com.gkats.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gkats.backend.exceptions.TooManyAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Login throttle.
+ * Fixed-window attempt budgets checked before any password is hashed: every attempt counts
+ * against the client IP, and failed logins count against the account until one succeeds.
+ * Rejections are counted as {@code auth.throttled}, tagged with the scope.
+ * The client IP is the request's remote address, which {@code server.forward-headers-strategy}
+ * resolves to the forwarded client address on requests arriving through a trusted proxy.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxAttemptsPerIp;
+    private final int maxFailuresPerAccount;
+    private final long windowMillis;
+    private final Cache<String, Window> attemptsByIp;
+    private final Cache<String, Window> failuresByAccount;
+    private final Counter ipThrottled;
+    private final Counter accountThrottled;
+
+    /**
+     * Instantiates the Login throttle.
+     *
+     * @param maxAttemptsPerIp      the attempts allowed per client IP and window
+     * @param maxFailuresPerAccount the failed logins allowed per account and window
+     * @param window                the window length
+     * @param maxTracked            the maximum number of IPs and accounts tracked
+     * @param meterRegistry         the meter registry
+     */
+    public LoginThrottle(@Value("${spring.app.auth.throttle.per-ip:30}") int maxAttemptsPerIp,
+                         @Value("${spring.app.auth.throttle.per-account-failures:5}") int maxFailuresPerAccount,
+                         @Value("${spring.app.auth.throttle.window:1m}") Duration window,
+                         @Value("${spring.app.auth.throttle.max-tracked:100000}") long maxTracked,
+                         MeterRegistry meterRegistry) {
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxFailuresPerAccount = maxFailuresPerAccount;
+        this.windowMillis = window.toMillis();
+        // Entries are never rewritten, so expiry after write ends each window where it started
+        this.attemptsByIp = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterWrite(window).build();
+        this.failuresByAccount = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterWrite(window).build();
+        this.ipThrottled = Counter.builder("auth.throttled").tag("scope", "ip").register(meterRegistry);
+        this.accountThrottled = Counter.builder("auth.throttled").tag("scope", "account").register(meterRegistry);
+    }
+
+    /**
+     * Count an attempt and reject it when the client or the account is over budget.
+     *
+     * @param clientIp the client ip
+     * @param account  the account, or null when there is none yet (registration)
+     * @throws TooManyAttemptsException if over budget
+     */
+    public void checkAttempt(String clientIp, String account) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            Window ipWindow = attemptsByIp.get(clientIp, ip -> new Window(now));
+            if (ipWindow.count.incrementAndGet() > maxAttemptsPerIp) {
+                ipThrottled.increment();
+                throw new TooManyAttemptsException("Too many attempts from this address", retryAfter(ipWindow, now));
+            }
+        }
+        String key = normalize(account);
+        if (key != null) {
+            Window accountWindow = failuresByAccount.getIfPresent(key);
+            if (accountWindow != null && accountWindow.count.get() >= maxFailuresPerAccount) {
+                accountThrottled.increment();
+                throw new TooManyAttemptsException("Too many failed attempts for this account", retryAfter(accountWindow, now));
+            }
+        }
+    }
+
+    /**
+     * Record a failed login.
+     *
+     * @param account the account
+     */
+    public void recordFailure(String account) {
+        String key = normalize(account);
+        if (key != null) {
+            failuresByAccount.get(key, k -> new Window(System.currentTimeMillis())).count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record a successful login, clearing the account's failures.
+     *
+     * @param account the account
+     */
+    public void recordSuccess(String account) {
+        String key = normalize(account);
+        if (key != null) {
+            failuresByAccount.invalidate(key);
+        }
+    }
+
+    private long retryAfter(Window window, long now) {
+        return Math.max(1, (window.start + windowMillis - now + 999) / 1000);
+    }
+
+    private static String normalize(String account) {
+        return account == null || account.isBlank() ? null : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Window {
+        private final long start;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.gkats.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The type Password hashing executor.
+ * Runs login and registration, whose cost is almost entirely BCrypt, on a small pool sized
+ * to the CPU instead of on request threads. The queue is bounded and a full queue rejects
+ * immediately, so a login burst is answered with 503 instead of occupying every request thread.
+ * Queue depth, active hashing threads and rejections are published as {@code auth.hashing.*}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    /**
+     * Instantiates the Password hashing executor.
+     *
+     * @param threads       the number of hashing threads, or 0 for one less than the available cores
+     * @param queueCapacity the number of waiting tasks before new ones are rejected
+     * @param retryAfter    the Retry-After hint sent with a rejection
+     * @param meterRegistry the meter registry
+     */
+    public PasswordHashingExecutor(@Value("${spring.app.auth.hashing.threads:0}") int threads,
+                                   @Value("${spring.app.auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${spring.app.auth.hashing.retry-after:1s}") Duration retryAfter,
+                                   MeterRegistry meterRegistry) {
+        // Leave a core for request threads serving everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Login and registration attempts rejected because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Login and registration attempts waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a task on the hashing pool.
+     *
+     * @param <T>  the result type
+     * @param task the task
+     * @return the future result
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the Retry-After hint for rejected tasks.
+     *
+     * @return the seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Stop the pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
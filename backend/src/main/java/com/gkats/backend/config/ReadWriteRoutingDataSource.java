@@ -0,0 +1,119 @@
+package com.gkats.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The type Read write routing data source.
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction is only marked read-only after it has begun, so the physical connection
+ * has to be fetched on the first statement rather than when the transaction starts.
+ * Once a read-write transaction commits, the read-only transactions of the client that ran it
+ * stay on the primary for the read-your-writes window, so a client never reads a replica that
+ * has not caught up with its own write. The client is the authenticated user, and the rest of
+ * the web request in any case; other clients, and writes made outside a request by no user
+ * (scheduled jobs), keep reading the replica. Connections handed out are counted as
+ * {@code db.routing.connections}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    private static final String PINNED_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".PINNED";
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    // Users who committed a write within the read-your-writes window
+    private final Cache<String, Boolean> pinnedUsers;
+
+    /**
+     * Instantiates the Read write routing data source.
+     *
+     * @param primary           the primary data source, for writes
+     * @param replica           the replica data source, for read-only transactions
+     * @param readYourWrites    how long a client's reads stay on the primary after its write commits
+     * @param meterRegistry     the meter registry
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites,
+                                      MeterRegistry meterRegistry) {
+        this.pinnedUsers = Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+        this.primaryConnections = connections(meterRegistry, PRIMARY);
+        this.replicaConnections = connections(meterRegistry, REPLICA);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Whether read-only transactions of the current client are held on the primary after its recent write.
+     *
+     * @return the boolean
+     */
+    public boolean isPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String user = currentUser();
+        return user != null && pinnedUsers.getIfPresent(user) != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && !isPinnedToPrimary()) {
+            replicaConnections.increment();
+            return REPLICA;
+        }
+        if (!readOnly && TransactionSynchronizationManager.isSynchronizationActive()) {
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            String user = currentUser();
+            if (request != null || user != null) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        if (request != null) {
+                            request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+                        }
+                        if (user != null) {
+                            pinnedUsers.put(user, Boolean.TRUE);
+                        }
+                    }
+                });
+            }
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out, by routing target")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -1,14 +1,22 @@
 package com.gkats.backend.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 /**
@@ -22,9 +30,12 @@ public class SecurityConfiguration {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final AuthenticationProvider authenticationProvider;
+    private final Environment environment;
 
     /**
      * Security filter chain.
+     * Health is public. The Prometheus scrape is public only when actuator runs on its own
+     * management port, which is not exposed with the API; on the API port it needs a token.
      * @param http the http
      * @return the security filter chain
      * @throws Exception the exception
@@ -36,6 +47,8 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.to("prometheus")).access(scrapeAccess())
                         //TODO add other endpoints when ready
                         .anyRequest().authenticated()
                 )
@@ -47,4 +60,10 @@ public class SecurityConfiguration {
 
         return http.build();
     }
+
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        return ManagementPortType.get(environment) == ManagementPortType.DIFFERENT
+                ? (authentication, context) -> new AuthorizationDecision(true)
+                : AuthenticatedAuthorizationManager.authenticated();
+    }
 }
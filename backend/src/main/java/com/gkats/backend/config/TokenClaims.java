@@ -0,0 +1,81 @@
+package com.gkats.backend.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * The type Token claims.
+ * The verified claims of a JWT, produced by a single parse in {@link JwtService#parseToken(String)}.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+    private final Claims claims;
+
+    /**
+     * Get the username (subject).
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    /**
+     * Get the token id (jti).
+     *
+     * @return the token id, or null for tokens issued without it
+     */
+    public String getId() {
+        return claims.getId();
+    }
+
+    /**
+     * Whether this is a refresh token, which is only accepted by the refresh endpoint.
+     *
+     * @return the boolean
+     */
+    public boolean isRefreshToken() {
+        return JwtService.REFRESH_TOKEN_TYPE.equals(claims.get(JwtService.TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    /**
+     * Get the role claim.
+     *
+     * @return the role name, or null for tokens issued without it
+     */
+    public String getRole() {
+        return claims.get(JwtService.ROLE_CLAIM, String.class);
+    }
+
+    /**
+     * Get the user id claim.
+     *
+     * @return the user id, or null for tokens issued without it
+     */
+    public Long getUserId() {
+        Number userId = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+        return userId == null ? null : userId.longValue();
+    }
+
+    /**
+     * Get the expiration date.
+     *
+     * @return the expiration
+     */
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * Whether the token has expired.
+     *
+     * @return the boolean
+     */
+    public boolean isExpired() {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+}
@@ -0,0 +1,210 @@
+package com.gkats.backend.config;
+
+import com.gkats.backend.model.RevokedToken;
+import com.gkats.backend.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The type Token revocation list.
+ * Revoked token ids, checked on every authenticated request.
+ * Revoked ids are grouped into buckets by token expiry; each bucket holds a Bloom filter
+ * that answers most (non-revoked) checks without touching the exact id set behind it,
+ * and a bucket is dropped as a whole once every token in it has expired anyway.
+ * Revocations are also stored in the revoked_tokens table: unexpired ones are loaded at
+ * startup, revocations made by other instances are picked up every sync interval, and
+ * revoking goes through the table, so a refresh token is accepted once across all instances.
+ */
+@Component
+public class TokenRevocationList implements SchedulingConfigurer {
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long bucketMillis;
+    private final int bloomBits;
+    private final Duration syncInterval;
+    private final ConcurrentNavigableMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    /**
+     * Instantiates the Token revocation list.
+     *
+     * @param revokedTokenRepository the revoked token repository
+     * @param bucketWidth            the range of token expiry times sharing one bucket
+     * @param bloomBits              the Bloom filter size of each bucket, in bits
+     * @param syncInterval           how often revocations made by other instances are loaded
+     */
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${spring.app.jwt.revocation.bucket-width:1h}") Duration bucketWidth,
+                               @Value("${spring.app.jwt.revocation.bloom-bits:65536}") int bloomBits,
+                               @Value("${spring.app.jwt.revocation.sync-interval:30s}") Duration syncInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bucketMillis = Math.max(1, bucketWidth.toMillis());
+        this.bloomBits = Math.max(64, bloomBits);
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * Load every unexpired revocation, before the first request is authenticated.
+     */
+    @PostConstruct
+    public void load() {
+        sync();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::sync, syncInterval, syncInterval));
+    }
+
+    /**
+     * Load the revocations made since the last sync, by any instance, and purge expired rows.
+     * Each sync looks back one extra interval, so clock skew between instances and
+     * transactions still committing during the previous sync cannot make it miss a row.
+     * The purge is only sent to the primary when a row has actually expired.
+     */
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = syncedUntil.equals(Instant.EPOCH) ? Instant.EPOCH : syncedUntil.minus(syncInterval);
+        if (revokedTokenRepository.existsByExpiresAtLessThanEqual(now)) {
+            revokedTokenRepository.deleteExpired(now);
+        }
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfterAndRevokedAtGreaterThanEqual(now, since)) {
+            remember(token.getTokenId(), token.getExpiresAt().toEpochMilli());
+        }
+        syncedUntil = now;
+        purgeExpired(now.toEpochMilli());
+    }
+
+    /**
+     * Revoke a token id until the token expires.
+     *
+     * @param tokenId   the token id (jti)
+     * @param expiresAt the token expiry
+     * @return true if the id was not revoked before, by this or any other instance
+     */
+    public boolean revoke(String tokenId, Date expiresAt) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        if (tokenId == null || expiresAt == null || expiresAt.getTime() <= now) {
+            return tokenId != null;
+        }
+        if (!remember(tokenId, expiresAt.getTime())) {
+            return false;
+        }
+        // Not known here, but another instance, or this one before a restart, may have revoked it
+        return revokedTokenRepository.insertIfAbsent(tokenId, expiresAt.toInstant(), Instant.ofEpochMilli(now)) == 1;
+    }
+
+    /**
+     * Whether a token id has been revoked.
+     *
+     * @param tokenId   the token id (jti), or null for tokens issued without one
+     * @param expiresAt the token expiry
+     * @return the boolean
+     */
+    public boolean isRevoked(String tokenId, Date expiresAt) {
+        if (tokenId == null || expiresAt == null) {
+            return false;
+        }
+        Bucket bucket = buckets.get(expiresAt.getTime() / bucketMillis);
+        return bucket != null && bucket.mightContain(tokenId) && bucket.ids.contains(tokenId);
+    }
+
+    /**
+     * Whether a verified token has been revoked.
+     *
+     * @param claims the claims
+     * @return the boolean
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        return isRevoked(claims.getId(), claims.getExpiration());
+    }
+
+    /**
+     * Get the number of revoked ids still tracked.
+     *
+     * @return the size
+     */
+    public int size() {
+        purgeExpired(System.currentTimeMillis());
+        return buckets.values().stream().mapToInt(bucket -> bucket.ids.size()).sum();
+    }
+
+    private boolean remember(String tokenId, long expiresAtMillis) {
+        Bucket bucket = buckets.computeIfAbsent(expiresAtMillis / bucketMillis, index -> new Bucket(bloomBits));
+        bucket.add(tokenId);
+        return bucket.ids.add(tokenId);
+    }
+
+    private void purgeExpired(long now) {
+        // Bucket i holds tokens expiring in [i * width, (i + 1) * width)
+        buckets.headMap(now / bucketMillis).clear();
+    }
+
+    /**
+     * Revoked ids of tokens expiring in one time range.
+     */
+    private static final class Bucket {
+        private final AtomicLongArray bits;
+        private final int size;
+        private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        private Bucket(int size) {
+            this.size = size;
+            this.bits = new AtomicLongArray((size + 63) / 64);
+        }
+
+        private void add(String tokenId) {
+            long hash = hash(tokenId);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bitOf(hash, i);
+                long mask = 1L << (bit & 63);
+                bits.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+            }
+        }
+
+        private boolean mightContain(String tokenId) {
+            long hash = hash(tokenId);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bitOf(hash, i);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Double hashing: the i-th probe is h1 + i * h2, with h1 and h2 the halves of one 64-bit hash
+        private int bitOf(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return Math.floorMod(h1 + i * h2, size);
+        }
+
+        // 64-bit FNV-1a
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.gkats.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gkats.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The type User details cache.
+ * Bounded, time-limited cache of users for bearer-token authentication. Anything that
+ * changes a user or their role must call {@link #evict(String)}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserDetails> users;
+
+    /**
+     * Instantiates the User details cache.
+     *
+     * @param userRepository the user repository
+     * @param maxSize        the maximum number of cached users
+     * @param ttl            how long a cached user is trusted
+     */
+    public UserDetailsCache(UserRepository userRepository,
+                            @Value("${spring.app.auth.user-cache.max-size:10000}") long maxSize,
+                            @Value("${spring.app.auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Load a user, from the cache when present.
+     * Deliberately not a {@code UserDetailsService} bean, so password login keeps reading the database.
+     *
+     * @param username the username
+     * @return the user details
+     * @throws UsernameNotFoundException if no user has this username
+     */
+    public UserDetails loadUserByUsername(String username) {
+        // Misses are not cached, so a user registering right after a failed lookup is found
+        UserDetails cached = users.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails user = userRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        users.put(username, user);
+        return user;
+    }
+
+    /**
+     * Evict a user after it or its role changed.
+     *
+     * @param username the username
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+    }
+
+    /**
+     * Evict all users.
+     */
+    public void evictAll() {
+        users.invalidateAll();
+    }
+}
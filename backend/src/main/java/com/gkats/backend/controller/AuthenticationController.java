@@ -1,15 +1,26 @@
 package com.gkats.backend.controller;
 
+import com.gkats.backend.config.PasswordHashingExecutor;
+import com.gkats.backend.exceptions.TooManyAttemptsException;
 import com.gkats.backend.services.AuthenticationService;
 import com.gkats.backend.utils.*;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * The type Authentication controller.
  */
@@ -19,26 +30,106 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     /**
      * Register response entity.
      *
-     * @param request the request
+     * @param request        the request
+     * @param servletRequest the servlet request, for the client address (the forwarded one behind a trusted proxy)
      * @return the response entity
      */
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse> register(@RequestBody RegisterRequest request) {
-        return ResponseEntity.ok(authenticationService.register(request));
+    public CompletableFuture<ResponseEntity<ApiResponse>> register(@RequestBody RegisterRequest request,
+                                                                   HttpServletRequest servletRequest) {
+        try {
+            return authenticationService.registerAsync(request, servletRequest.getRemoteAddr())
+                    .thenApply(response -> ResponseEntity.<ApiResponse>ok(response)) // Returns HTTP 200 OK
+                    .exceptionally(this::hashingFailed);
+        } catch (TooManyAttemptsException e) {
+            return CompletableFuture.completedFuture(tooManyAttempts(e));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingOverloaded());
+        }
     }
 
     /**
      * Login response entity.
      *
-     * @param request the request
+     * @param request        the request
+     * @param servletRequest the servlet request, for the client address (the forwarded one behind a trusted proxy)
      * @return the response entity
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authenticationService.login(request));
+    public CompletableFuture<ResponseEntity<ApiResponse>> login(@RequestBody LoginRequest request,
+                                                                HttpServletRequest servletRequest) {
+        try {
+            return authenticationService.loginAsync(request, servletRequest.getRemoteAddr())
+                    .thenApply(response -> ResponseEntity.<ApiResponse>ok(response)) // Returns HTTP 200 OK
+                    .exceptionally(this::hashingFailed);
+        } catch (TooManyAttemptsException e) {
+            return CompletableFuture.completedFuture(tooManyAttempts(e));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingOverloaded());
+        }
+    }
+
+    /**
+     * Refresh response entity.
+     *
+     * @param request the request
+     * @return the response entity
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthTokens>> refresh(@RequestBody RefreshRequest request) {
+        try {
+            AuthTokens tokens = authenticationService.refresh(request);
+            return ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), ApiMessages.SUCCESS, tokens)); // Returns HTTP 200 OK
+        } catch (JwtException | AuthenticationException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(HttpStatus.UNAUTHORIZED.value(), ApiMessages.UNAUTHORIZED, e.getMessage())); // Returns HTTP 401 Unauthorized
+        }
+    }
+
+    /**
+     * Logout response entity.
+     *
+     * @param request       the request
+     * @param authorization the authorization header
+     * @return the response entity
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody RefreshRequest request,
+                                                    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+            authenticationService.logout(request, accessToken);
+            return ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), ApiMessages.SUCCESS, null)); // Returns HTTP 200 OK
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(HttpStatus.UNAUTHORIZED.value(), ApiMessages.UNAUTHORIZED, e.getMessage())); // Returns HTTP 401 Unauthorized
+        }
+    }
+
+    private ResponseEntity<ApiResponse> hashingFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(HttpStatus.UNAUTHORIZED.value(), ApiMessages.INVALID_CREDENTIALS, cause.getMessage())); // Returns HTTP 401 Unauthorized
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), ApiMessages.INTERNAL_ERROR, cause.getMessage())); // Returns HTTP 500 Internal Server Error
+    }
+
+    private ResponseEntity<ApiResponse> tooManyAttempts(TooManyAttemptsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS.value(), ApiMessages.TOO_MANY_REQUESTS, e.getMessage())); // Returns HTTP 429 Too Many Requests
+    }
+
+    private ResponseEntity<ApiResponse> hashingOverloaded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingExecutor.getRetryAfterSeconds()))
+                .body(ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(), ApiMessages.SERVICE_UNAVAILABLE, null)); // Returns HTTP 503 Service Unavailable
     }
 }
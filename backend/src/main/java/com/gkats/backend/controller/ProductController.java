@@ -2,17 +2,35 @@ package com.gkats.backend.controller;
 
 
 import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductImportService;
+import com.gkats.backend.services.ProductResponseCache;
+import com.gkats.backend.services.ProductResponseCache.CachedResponse;
 import com.gkats.backend.services.ProductService;
 import com.gkats.backend.utils.ApiMessages;
 import com.gkats.backend.utils.ApiResponse;
+import com.gkats.backend.utils.BulkProductUpdate;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductFields;
+import com.gkats.backend.utils.ProductFilterResult;
+import com.gkats.backend.utils.ProductImportReport;
+import com.gkats.backend.utils.ProductSuggestions;
+import com.gkats.backend.utils.ProductSummary;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * The type Product controller.
@@ -24,27 +42,60 @@ public class ProductController {
 
     // Dependency injection
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductResponseCache productResponseCache;
 
     // Constructor
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ProductResponseCache productResponseCache) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productResponseCache = productResponseCache;
     }
 
     /**
-     * Get products list.
+     * Get a page of products.
      *
-     * @return the list of products
+     * @param cursor the id of the last product of the previous page
+     * @param limit  the page size
+     * @param fields the comma separated fields to return, or null for the summary
+     * @param acceptEncoding the accepted content codings
+     * @param webRequest the web request
+     * @return the page of products, pre-serialized
      */
     @GetMapping("/getProducts")
-    public ResponseEntity<ApiResponse<List<Product>>> getProducts() {
-        log.info("Get products list...");
+    public ResponseEntity<?> getProducts(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        log.debug("Get products list...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
         try {
-            List<Product> products = productService.getProducts();
-            return ResponseEntity.ok(ApiResponse.success(
-                    HttpStatus.OK.value(),
-                    ApiMessages.SUCCESS,
-                    products)); // Returns HTTP 200 with the product list
+            ProductFields productFields = ProductFields.parse(fields);
+            CachedResponse products = productResponseCache.get(
+                    "getProducts?cursor=" + cursor + "&limit=" + productService.resolveLimit(limit)
+                            + "&fields=" + productFields, etag,
+                    () -> ApiResponse.success(
+                            HttpStatus.OK.value(),
+                            ApiMessages.SUCCESS,
+                            productFields == null
+                                    ? productService.getProducts(cursor, limit)
+                                    : productService.getProductFields(cursor, limit, productFields)));
+            return cachedBody(products, acceptEncoding); // Returns HTTP 200 with the product page
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST.value(),
+                            ApiMessages.BAD_REQUEST,
+                            e.getMessage())); // Returns HTTP 400 on an unknown field
         } catch (Exception e) {
             log.error("Error getting products", e);
             return ResponseEntity
@@ -58,16 +109,27 @@ public class ProductController {
 
     /**
      * Get product by id.
+     * Answers If-None-Match / If-Modified-Since with 304 when the product is unchanged.
      *
-     * @param id the id
+     * @param id         the id
+     * @param webRequest the web request
      * @return the product
      */
     @GetMapping("/getProductById/{id}")
-    public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable Long id) {
-        log.info("Get product by id...");
+    public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        log.debug("Get product by id...");
         try {
             Product product = productService.getProductById(id);
-            return ResponseEntity.ok(ApiResponse.success(
+            String etag = productETag(product);
+            long lastModified = product.getLastModified() == null ? -1 : product.getLastModified().toEpochMilli();
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+            }
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(etag);
+            if (lastModified >= 0) {
+                ok.lastModified(lastModified);
+            }
+            return ok.body(ApiResponse.success(
                     HttpStatus.OK.value(),
                     ApiMessages.SUCCESS,
                     product)); // Returns HTTP 200 with the product
@@ -83,20 +145,49 @@ public class ProductController {
     }
 
     /**
-     * Get products by category.
+     * Get a page of products by category.
      *
      * @param category the category
-     * @return the list of products
+     * @param cursor   the id of the last product of the previous page
+     * @param limit    the page size
+     * @param fields   the comma separated fields to return, or null for the summary
+     * @param acceptEncoding the accepted content codings
+     * @param webRequest the web request
+     * @return the page of products, pre-serialized
      */
     @GetMapping("/getProductsByCategory/{category}")
-    public ResponseEntity<ApiResponse<List<Product>>> getProductsByCategory(@PathVariable String category) {
-        log.info("Get products by category...");
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        log.debug("Get products by category...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
         try {
-            List<Product> products = productService.getProductsByCategory(category);
-            return ResponseEntity.ok(ApiResponse.success(
-                    HttpStatus.OK.value(),
-                    ApiMessages.SUCCESS,
-                    products)); // Returns HTTP 200 with the product list
+            ProductFields productFields = ProductFields.parse(fields);
+            // Categories match case-insensitively, so every spelling of one shares its entry
+            CachedResponse products = productResponseCache.get(
+                    "getProductsByCategory/" + category.toLowerCase(Locale.ROOT) + "?cursor=" + cursor
+                            + "&limit=" + productService.resolveLimit(limit) + "&fields=" + productFields, etag,
+                    () -> ApiResponse.success(
+                            HttpStatus.OK.value(),
+                            ApiMessages.SUCCESS,
+                            productFields == null
+                                    ? productService.getProductsByCategory(category, cursor, limit)
+                                    : productService.getProductFieldsByCategory(category, cursor, limit, productFields)));
+            return cachedBody(products, acceptEncoding); // Returns HTTP 200 with the product page
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST.value(),
+                            ApiMessages.BAD_REQUEST,
+                            e.getMessage())); // Returns HTTP 400 on an unknown field
         } catch (Exception e) {
             log.error("Error getting products by category: {}", category, e);
             return ResponseEntity
@@ -109,21 +200,45 @@ public class ProductController {
     }
 
     /**
-     * Get products by price range.
+     * Get a page of products by price range.
      *
      * @param minPrice the min price
      * @param maxPrice the max price
-     * @return the list of products
+     * @param cursor   the id of the last product of the previous page
+     * @param limit    the page size
+     * @param fields   the comma separated fields to return, or null for the summary
+     * @param webRequest the web request
+     * @return the page of products
      */
     @GetMapping("/getProductsByPriceRange/{minPrice}/{maxPrice}")
-    public ResponseEntity<ApiResponse<List<Product>>> getProductsByPriceRange(@PathVariable Double minPrice, @PathVariable Double maxPrice) {
-        log.info("Get products by price range...");
+    public ResponseEntity<ApiResponse<CursorPage<?>>> getProductsByPriceRange(
+            @PathVariable Double minPrice,
+            @PathVariable Double maxPrice,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        log.debug("Get products by price range...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
         try {
-            List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-            return ResponseEntity.ok(ApiResponse.success(
+            ProductFields productFields = ProductFields.parse(fields);
+            CursorPage<?> products = productFields == null
+                    ? productService.getProductsByPriceRange(minPrice, maxPrice, cursor, limit)
+                    : productService.getProductFieldsByPriceRange(minPrice, maxPrice, cursor, limit, productFields);
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(
                     HttpStatus.OK.value(),
                     ApiMessages.SUCCESS,
-                    products)); // Returns HTTP 200 with the product list
+                    products)); // Returns HTTP 200 with the product page
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST.value(),
+                            ApiMessages.BAD_REQUEST,
+                            e.getMessage())); // Returns HTTP 400 on an unknown field
         } catch (Exception e) {
             log.error("Error getting products by price range", e);
             return ResponseEntity
@@ -136,20 +251,86 @@ public class ProductController {
     }
 
     /**
-     * Search products by name.
+     * Filter products by any combination of attributes, with facet counts.
+     *
+     * @param category  the category
+     * @param color     the color
+     * @param available the availability
+     * @param minPrice  the min price
+     * @param maxPrice  the max price
+     * @param name      the name query
+     * @param cursor    the id of the last product of the previous page
+     * @param limit     the page size
+     * @param webRequest the web request
+     * @return the filtered page with facet counts
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<ProductFilterResult>> filterProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        log.debug("Filter products...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
+        try {
+            ProductFilterResult result = productService.filterProducts(
+                    category, color, available, minPrice, maxPrice, name, cursor, limit);
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(
+                    HttpStatus.OK.value(),
+                    ApiMessages.SUCCESS,
+                    result)); // Returns HTTP 200 with the filtered page and facets
+        } catch (IllegalStateException e) {
+            log.warn("Product filter unavailable: {}", e.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(
+                            HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            ApiMessages.SERVICE_UNAVAILABLE,
+                            e.getMessage())); // Returns HTTP 503 while the catalog is loading
+        } catch (Exception e) {
+            log.error("Error filtering products", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            ApiMessages.INTERNAL_ERROR,
+                            e.getMessage())); // Returns HTTP 500 if an error occurs
+        }
+    }
+
+    /**
+     * Search products by name, sku and description, best match first.
+     * Each query word must start a word of the product ("phone" matches "Phone Case", not "iPhone").
      *
-     * @param name the name
+     * @param name  the name
+     * @param limit the maximum number of results
+     * @param webRequest the web request
      * @return the list of products
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Product>>> searchProducts(@RequestParam String name) {
-        log.info("Search products by name...");
+    public ResponseEntity<ApiResponse<List<ProductSummary>>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        log.debug("Search products by name...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
         try {
-            List<Product> products = productService.searchProductsByName(name);
-            return ResponseEntity.ok(ApiResponse.success(
+            List<ProductSummary> products = productService.searchProductsByName(name, limit);
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(
                     HttpStatus.OK.value(),
                     ApiMessages.SUCCESS,
-                    products));// Returns HTTP 200 with the product list
+                    products));// Returns HTTP 200 with the ranked product list
         } catch (Exception e) {
             log.error("Error searching products by name", e);
             return ResponseEntity
@@ -162,19 +343,70 @@ public class ProductController {
     }
 
     /**
-     * Get categories list.
+     * Suggest product names and categories for a prefix, most used first.
      *
-     * @return the list of categories
+     * @param prefix the prefix
+     * @param limit  the maximum number of names and of categories
+     * @return the suggestions
      */
-    @GetMapping("/getCategories")
-    public ResponseEntity<ApiResponse<List<String>>> getCategories() {
-        log.info("Get categories list...");
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<ProductSuggestions>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<String> categories = productService.getCategories();
+            ProductSuggestions suggestions = productService.suggest(prefix, limit);
             return ResponseEntity.ok(ApiResponse.success(
                     HttpStatus.OK.value(),
                     ApiMessages.SUCCESS,
-                    categories)); // Returns HTTP 200 with the category list
+                    suggestions)); // Returns HTTP 200 with the suggestions
+        } catch (Exception e) {
+            log.error("Error suggesting products for prefix: {}", prefix, e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            ApiMessages.INTERNAL_ERROR,
+                            e.getMessage())); // Returns HTTP 500 if an error occurs
+        }
+    }
+
+    /**
+     * Export the whole catalog as newline-delimited JSON, one product per line.
+     *
+     * @return the streamed catalog
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        log.debug("Export products...");
+        StreamingResponseBody body = productService::exportProducts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body); // Streams HTTP 200 while the catalog is read
+    }
+
+    /**
+     * Get categories list.
+     *
+     * @param acceptEncoding the accepted content codings
+     * @param webRequest the web request
+     * @return the list of categories, pre-serialized
+     */
+    @GetMapping("/getCategories")
+    public ResponseEntity<?> getCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        log.debug("Get categories list...");
+        String etag = productService.getCatalogETag();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build(); // Returns HTTP 304 without a body
+        }
+        try {
+            CachedResponse categories = productResponseCache.get("getCategories", etag,
+                    () -> ApiResponse.success(
+                            HttpStatus.OK.value(),
+                            ApiMessages.SUCCESS,
+                            productService.getCategories()));
+            return cachedBody(categories, acceptEncoding); // Returns HTTP 200 with the category list
         } catch (Exception e) {
             log.error("Error getting categories", e);
             return ResponseEntity
@@ -194,7 +426,7 @@ public class ProductController {
      */
     @PostMapping("/addProduct")
     public ResponseEntity<ApiResponse<Product>> addProduct(@RequestBody Product product) {
-        log.info("Add product...");
+        log.debug("Add product...");
         try {
             Product savedProduct = productService.addProduct(product);
             return ResponseEntity.ok(ApiResponse.success(
@@ -212,19 +444,64 @@ public class ProductController {
         }
     }
 
+    /**
+     * Bulk import products from a JSON array or an NDJSON stream. Admins only.
+     *
+     * @param request the request whose body holds the products
+     * @return the import report
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/importProducts",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ProductImportReport>> importProducts(HttpServletRequest request) {
+        log.debug("Import products...");
+        try {
+            boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+            ProductImportReport report = ndjson
+                    ? productImportService.importNdjson(request.getInputStream())
+                    : productImportService.importJsonArray(request.getInputStream());
+            return ResponseEntity.ok(ApiResponse.success(
+                    HttpStatus.OK.value(),
+                    ApiMessages.SUCCESS,
+                    report)); // Returns HTTP 200 with per-row results
+        } catch (IllegalArgumentException e) {
+            log.error("Rejected product import", e);
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST.value(),
+                            ApiMessages.BAD_REQUEST,
+                            e.getMessage())); // Returns HTTP 400 if the body is not a product list
+        } catch (Exception e) {
+            log.error("Error importing products", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            ApiMessages.INTERNAL_ERROR,
+                            e.getMessage())); // Returns HTTP 500 if an error occurs
+        }
+    }
+
     /**
      * Update product.
+     * With an If-Match header the update only applies if the product is still at that ETag,
+     * otherwise HTTP 412 is returned so concurrent edits do not overwrite each other.
      *
      * @param id      the id
      * @param product the product
+     * @param ifMatch the ETag the client last saw
      * @return the product
      */
     @PutMapping("/updateProduct/{id}")
-    public ResponseEntity<ApiResponse<Product>> updateProduct(@PathVariable Long id, @RequestBody Product product) {
+    public ResponseEntity<ApiResponse<Product>> updateProduct(
+            @PathVariable Long id,
+            @RequestBody Product product,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            log.info("Updating product with ID: {}", id);
-            Product updatedProduct = productService.updateProduct(id, product);
-            return ResponseEntity.ok(ApiResponse.success(
+            log.debug("Updating product with ID: {}", id);
+            Product updatedProduct = productService.updateProduct(id, product, versionOf(ifMatch));
+            return ResponseEntity.ok().eTag(productETag(updatedProduct)).body(ApiResponse.success(
                     HttpStatus.OK.value(),
                     ApiMessages.SUCCESS,
                     updatedProduct)); // Return HTTP 200 OK with updated product
@@ -236,6 +513,21 @@ public class ProductController {
                             HttpStatus.NOT_FOUND.value(),
                             ApiMessages.ITEM_NOT_FOUND,
                             e.getMessage())); // Returns HTTP 404 Not Found if product doesn't exist
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Rejected stale update of product with ID: {}", id);
+            return ResponseEntity
+                    .status(HttpStatus.PRECONDITION_FAILED)
+                    .body(ApiResponse.error(
+                            HttpStatus.PRECONDITION_FAILED.value(),
+                            ApiMessages.PRECONDITION_FAILED,
+                            e.getMessage())); // Returns HTTP 412 if the product changed since If-Match
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST.value(),
+                            ApiMessages.BAD_REQUEST,
+                            e.getMessage())); // Returns HTTP 400 on a malformed If-Match header
         } catch (Exception e) {
             log.error("Error updating product with ID: {}", id, e);
             return ResponseEntity
@@ -247,6 +539,67 @@ public class ProductController {
         }
     }
 
+    /**
+     * Apply the same partial update to many products in one statement. Admins only.
+     *
+     * @param request the product ids and the fields to change
+     * @return the number of updated products
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/updateProducts")
+    public ResponseEntity<ApiResponse<Integer>> updateProducts(@RequestBody BulkProductUpdate request) {
+        try {
+            log.debug("Bulk updating {} products", request.getIds() == null ? 0 : request.getIds().size());
+            if (request.getIds() == null || request.getChanges() == null) {
+                return ResponseEntity
+                        .status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(
+                                HttpStatus.BAD_REQUEST.value(),
+                                ApiMessages.BAD_REQUEST,
+                                "Both ids and changes are required")); // Returns HTTP 400 on an incomplete request
+            }
+            int updated = productService.updateProducts(request.getIds(), request.getChanges());
+            return ResponseEntity.ok(ApiResponse.success(
+                    HttpStatus.OK.value(),
+                    ApiMessages.SUCCESS,
+                    updated)); // Returns HTTP 200 with the number of updated products
+        } catch (Exception e) {
+            log.error("Error bulk updating products", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            ApiMessages.INTERNAL_ERROR,
+                            e.getMessage())); // Returns HTTP 500 if an error occurs
+        }
+    }
+
+    /**
+     * Delete many products in one statement. Admins only.
+     *
+     * @param ids the product ids
+     * @return the number of deleted products
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/deleteProducts")
+    public ResponseEntity<ApiResponse<Integer>> deleteProducts(@RequestParam List<Long> ids) {
+        try {
+            int deleted = productService.deleteProducts(ids);
+            return ResponseEntity.ok(ApiResponse.success(
+                    HttpStatus.OK.value(),
+                    ApiMessages.SUCCESS,
+                    deleted)); // Returns HTTP 200 with the number of deleted products
+        } catch (Exception e) {
+            log.error("Error bulk deleting products", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            ApiMessages.INTERNAL_ERROR,
+                            e.getMessage())); // Returns HTTP 500 if an error occurs
+        }
+    }
+
     /**
      * Delete product by id.
      *
@@ -276,4 +629,63 @@ public class ProductController {
                             e.getMessage())); // Returns HTTP 500 if an error occurs
         }
     }
+
+    /**
+     * Write a pre-serialized response, gzip-compressed when the client accepts it.
+     *
+     * @param response       the cached response
+     * @param acceptEncoding the Accept-Encoding header
+     * @return the response entity
+     */
+    private static ResponseEntity<byte[]> cachedBody(CachedResponse response, String acceptEncoding) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(response.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (response.hasGzip() && acceptsGzip(acceptEncoding)) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return ok.body(response.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                // gzip;q=0 means "not gzip"
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String productETag(Product product) {
+        return "\"" + product.getVersion() + "\"";
+    }
+
+    /**
+     * Parse the product version out of an If-Match header.
+     *
+     * @param ifMatch the header value, e.g. {@code "3"} or {@code W/"3"}
+     * @return the version, or null when the header is absent or {@code *}
+     */
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must carry a product ETag, got: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.gkats.backend.exceptions;
+
+/**
+ * The type Too many attempts exception.
+ * Thrown when a client or account exceeds its login attempt budget.
+ */
+public class TooManyAttemptsException extends GenericException {
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message, "TOO_MANY_ATTEMPTS");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gkats.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    // The token's jti
+    @Id
+    private String tokenId;
+
+    // Rows are only needed until the token would have expired anyway
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Lets other instances pick up revocations made since they last looked
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+}
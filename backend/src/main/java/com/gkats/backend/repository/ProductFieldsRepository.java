@@ -0,0 +1,29 @@
+package com.gkats.backend.repository;
+
+import com.gkats.backend.utils.ProductFields;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The interface Product fields repository.
+ * Keyset listings that select only the columns of a sparse fieldset.
+ */
+public interface ProductFieldsRepository {
+
+    /**
+     * Find a page of products after the given id, selecting only the requested fields.
+     * A price range is listed in (price, id) order, resuming after the cursor product's
+     * current price and id; other listings are in id order.
+     *
+     * @param fields   the fields to select
+     * @param category the category (case-insensitive), or null for any
+     * @param minPrice the min price, or null for no price filter
+     * @param maxPrice the max price, or null for no price filter
+     * @param cursor   the id of the last product of the previous page
+     * @param limit    the maximum number of rows
+     * @return the rows, in listing order, as field name to value in fieldset order
+     */
+    List<Map<String, Object>> findFields(ProductFields fields, String category, Double minPrice, Double maxPrice,
+                                         long cursor, int limit);
+}
@@ -0,0 +1,78 @@
+package com.gkats.backend.repository;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.ProductFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The type Product fields repository implementation.
+ * Builds a criteria tuple query whose select list is exactly the fieldset, so unrequested
+ * columns are never read and no entity is instantiated or managed.
+ */
+class ProductFieldsRepositoryImpl implements ProductFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(ProductFields fields, String category, Double minPrice, Double maxPrice,
+                                                long cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+
+        List<Selection<?>> columns = new ArrayList<>(fields.getNames().size());
+        for (String name : fields.getNames()) {
+            columns.add(product.get(name).alias(name));
+        }
+        List<Predicate> where = new ArrayList<>();
+        if (category != null) {
+            where.add(cb.equal(cb.lower(product.<String>get("category")), category.toLowerCase(Locale.ROOT)));
+        }
+        if (minPrice != null && maxPrice != null) {
+            Path<Double> price = product.get("price");
+            where.add(cb.between(price, minPrice, maxPrice));
+            if (cursor > 0) {
+                // After the cursor product's current (price, id)
+                Subquery<Double> cursorPrice = query.subquery(Double.class);
+                Root<Product> cursorProduct = cursorPrice.from(Product.class);
+                cursorPrice.select(cursorProduct.get("price")).where(cb.equal(cursorProduct.get("id"), cursor));
+                where.add(cb.or(
+                        cb.greaterThan(price, cursorPrice),
+                        cb.and(cb.equal(price, cursorPrice), cb.greaterThan(product.<Long>get("id"), cursor))));
+            }
+            query.orderBy(cb.asc(price), cb.asc(product.get("id")));
+        } else {
+            where.add(cb.greaterThan(product.<Long>get("id"), cursor));
+            query.orderBy(cb.asc(product.get("id")));
+        }
+        query.multiselect(columns)
+                .where(where.toArray(Predicate[]::new));
+
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : fields.getNames()) {
+                row.put(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,28 +1,78 @@
 package com.gkats.backend.repository;
 
 import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.CatalogStamp;
+import com.gkats.backend.utils.ProductSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFieldsRepository {
     // You can define custom queries here if needed
     List<Product> findByNameContaining(String name);
 
     //Retrieve all products
     List<Product> findAll();
 
-    //Retrieve products by category
-    List<Product> findByCategoryIgnoringCase(String category);
+    // List queries select only the summary columns, straight into ProductSummary (no managed entities)
 
-    //Retrieve products by price range
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
+    // Retrieve a page of products after the given id (keyset pagination)
+    List<ProductSummary> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limit);
 
-    // Find products with a name that contains the given string (case-insensitive)
-    List<Product> findByNameContainingIgnoreCase(String name);
+    //Retrieve a page of products by category (lower() on both sides matches products_lower_category_id_idx)
+    @Query("SELECT new com.gkats.backend.utils.ProductSummary(p.id, p.name, p.price, p.category, p.imageurl, p.available) "
+            + "FROM Product p WHERE lower(p.category) = lower(:category) AND p.id > :cursor ORDER BY p.id")
+    List<ProductSummary> findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(@Param("category") String category,
+                                                                               @Param("cursor") Long cursor,
+                                                                               Limit limit);
+
+    //Retrieve a page of products by price range, in (price, id) order after the cursor product's current position
+    @Query("SELECT new com.gkats.backend.utils.ProductSummary(p.id, p.name, p.price, p.category, p.imageurl, p.available) "
+            + "FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND (:cursor = 0 "
+            + "OR p.price > (SELECT c.price FROM Product c WHERE c.id = :cursor) "
+            + "OR p.price = (SELECT c.price FROM Product c WHERE c.id = :cursor) AND p.id > :cursor) "
+            + "ORDER BY p.price, p.id")
+    List<ProductSummary> findByPriceBetweenAfterOrderByPriceAscIdAsc(@Param("minPrice") Double minPrice,
+                                                                     @Param("maxPrice") Double maxPrice,
+                                                                     @Param("cursor") Long cursor,
+                                                                     Limit limit);
+
+    // Find a page of products with the term anywhere in name, sku or description (case-insensitive):
+    // the coarse database side of search before the index is loaded, refined by ProductSearchIndex.matches;
+    // each lower(...) LIKE matches its trigram index (products_lower_{name,sku,description}_trgm_idx)
+    @Query("SELECT p FROM Product p WHERE (lower(p.name) LIKE lower(concat('%', :#{escape(#term)}, '%')) ESCAPE :#{escapeCharacter()} "
+            + "OR lower(p.sku) LIKE lower(concat('%', :#{escape(#term)}, '%')) ESCAPE :#{escapeCharacter()} "
+            + "OR lower(p.description) LIKE lower(concat('%', :#{escape(#term)}, '%')) ESCAPE :#{escapeCharacter()}) "
+            + "AND p.id > :cursor ORDER BY p.id")
+    List<Product> findSearchCandidates(@Param("term") String term, @Param("cursor") Long cursor, Limit limit);
+
+    // Stream every product in id order through a forward-only cursor (must run inside a transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // Row count, newest modification and version total of the table, the catalog ETag;
+    // read-write so it is served by the primary, not a lagging replica
+    @Transactional
+    @Query("SELECT new com.gkats.backend.utils.CatalogStamp(count(p), max(p.lastModified), coalesce(sum(p.version), 0L)) "
+            + "FROM Product p")
+    CatalogStamp findCatalogStamp();
 
     // Retrieve category list
     @Query("SELECT DISTINCT p.category FROM Product p")
@@ -31,7 +81,38 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Save-Update product
     Product save (Product product);
 
-    // Delete product
-    void deleteProductById (long productId);
+    // Partially update products in one statement; null arguments keep the current column value.
+    // With an expected version only a product still at that version is updated.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET "
+            + "p.name = COALESCE(:name, p.name), "
+            + "p.description = COALESCE(:description, p.description), "
+            + "p.price = COALESCE(:price, p.price), "
+            + "p.category = COALESCE(:category, p.category), "
+            + "p.imageurl = COALESCE(:imageurl, p.imageurl), "
+            + "p.available = COALESCE(:available, p.available), "
+            + "p.sku = COALESCE(:sku, p.sku), "
+            + "p.dimensions = COALESCE(:dimensions, p.dimensions), "
+            + "p.color = COALESCE(:color, p.color), "
+            + "p.version = p.version + 1, "
+            + "p.lastModified = :now "
+            + "WHERE p.id IN :ids AND (:expectedVersion IS NULL OR p.version = :expectedVersion)")
+    int updateNonNullFields(@Param("ids") Collection<Long> ids,
+                            @Param("expectedVersion") Long expectedVersion,
+                            @Param("now") Instant now,
+                            @Param("name") String name,
+                            @Param("description") String description,
+                            @Param("price") Double price,
+                            @Param("category") String category,
+                            @Param("imageurl") String imageurl,
+                            @Param("available") Boolean available,
+                            @Param("sku") String sku,
+                            @Param("dimensions") String dimensions,
+                            @Param("color") String color);
+
+    // Delete products in one statement, returning how many rows were removed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 
 }
\ No newline at end of file
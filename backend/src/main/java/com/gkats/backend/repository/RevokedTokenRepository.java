@@ -0,0 +1,37 @@
+package com.gkats.backend.repository;
+
+import com.gkats.backend.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Insert unless the id is already revoked; 1 only for the one caller, on any instance, that revoked it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) "
+            + "VALUES (:tokenId, :expiresAt, :revokedAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId,
+                       @Param("expiresAt") Instant expiresAt,
+                       @Param("revokedAt") Instant revokedAt);
+
+    // Unexpired revocations made since a point in time; read-write so it is served by the primary, not a lagging replica
+    @Transactional
+    List<RevokedToken> findByExpiresAtAfterAndRevokedAtGreaterThanEqual(Instant now, Instant since);
+
+    // Whether any row has expired; read-only, so the purge below only runs on the primary when there is work
+    boolean existsByExpiresAtLessThanEqual(Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
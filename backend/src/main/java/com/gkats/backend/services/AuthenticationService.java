@@ -1,6 +1,11 @@
 package com.gkats.backend.services;
 
 import com.gkats.backend.config.JwtService;
+import com.gkats.backend.config.LoginThrottle;
+import com.gkats.backend.config.PasswordHashingExecutor;
+import com.gkats.backend.config.TokenClaims;
+import com.gkats.backend.config.TokenRevocationList;
+import com.gkats.backend.config.UserDetailsCache;
 import com.gkats.backend.model.Role;
 import com.gkats.backend.model.User;
 import com.gkats.backend.repository.UserRepository;
@@ -8,10 +13,14 @@ import com.gkats.backend.utils.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The type Authentication service.
  */
@@ -23,6 +32,45 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList revocationList;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Register on the password hashing pool.
+     *
+     * @param request  the request
+     * @param clientIp the client ip
+     * @return the future api response
+     * @throws com.gkats.backend.exceptions.TooManyAttemptsException if the client is over its attempt budget
+     * @throws java.util.concurrent.RejectedExecutionException       if the hashing queue is full
+     */
+    public CompletableFuture<ApiResponse<Object>> registerAsync(RegisterRequest request, String clientIp) {
+        loginThrottle.checkAttempt(clientIp, null);
+        return passwordHashingExecutor.submit(() -> register(request));
+    }
+
+    /**
+     * Login on the password hashing pool.
+     *
+     * @param request  the request
+     * @param clientIp the client ip
+     * @return the future api response, failing with an AuthenticationException on bad credentials
+     * @throws com.gkats.backend.exceptions.TooManyAttemptsException if the client or account is over its attempt budget
+     * @throws java.util.concurrent.RejectedExecutionException       if the hashing queue is full
+     */
+    public CompletableFuture<ApiResponse<Object>> loginAsync(LoginRequest request, String clientIp) {
+        loginThrottle.checkAttempt(clientIp, request.getEmail());
+        return passwordHashingExecutor.submit(() -> login(request))
+                .whenComplete((response, error) -> {
+                    if (error == null) {
+                        loginThrottle.recordSuccess(request.getEmail());
+                    } else if (error.getCause() instanceof AuthenticationException) {
+                        loginThrottle.recordFailure(request.getEmail());
+                    }
+                });
+    }
 
     /**
      * Register api response.
@@ -49,12 +97,12 @@ public class AuthenticationService {
 
 
         userRepository.save(user);
-        var jwtToken = jwtService.generateToken(user);
+        userDetailsCache.evict(user.getEmail());
 
         return ApiResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message(ApiMessages.SUCCESS)
-                .data(jwtToken)
+                .data(issueTokens(user))
                 .build();
     }
 
@@ -74,12 +122,60 @@ public class AuthenticationService {
 
         var user = userRepository.findByEmail(request.getEmail()).orElseThrow();
 
-        var jwtToken = jwtService.generateToken(user);
-
         return ApiResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message(ApiMessages.SUCCESS)
-                .data(jwtToken)
+                .data(issueTokens(user))
+                .build();
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * The presented refresh token is revoked, so each one can be used once; presenting
+     * it again fails. The user is reloaded, so role changes apply from the next refresh.
+     *
+     * @param request the request
+     * @return the new tokens
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     * @throws BadCredentialsException      if the token is not a refresh token, was already used or its user is gone
+     */
+    public AuthTokens refresh(RefreshRequest request) {
+        TokenClaims claims = jwtService.parseToken(request.getRefreshToken());
+        if (!claims.isRefreshToken()) {
+            throw new BadCredentialsException("Not a refresh token");
+        }
+        // revoke() is atomic, so of two concurrent refreshes with the same token only one wins
+        if (!revocationList.revoke(claims.getId(), claims.getExpiration())) {
+            throw new BadCredentialsException("Refresh token already used or revoked");
+        }
+        var user = userRepository.findByEmail(claims.getUsername())
+                .orElseThrow(() -> new BadCredentialsException("User not found"));
+        return issueTokens(user);
+    }
+
+    /**
+     * Logout: revoke the refresh token and, when given, the access token.
+     *
+     * @param request     the request holding the refresh token
+     * @param accessToken the bearer access token, or null
+     */
+    public void logout(RefreshRequest request, String accessToken) {
+        revoke(request.getRefreshToken());
+        if (accessToken != null) {
+            revoke(accessToken);
+        }
+    }
+
+    private void revoke(String token) {
+        TokenClaims claims = jwtService.parseToken(token);
+        revocationList.revoke(claims.getId(), claims.getExpiration());
+    }
+
+    private AuthTokens issueTokens(User user) {
+        return AuthTokens.builder()
+                .accessToken(jwtService.generateToken(user))
+                .refreshToken(jwtService.generateRefreshToken(user))
+                .expiresIn(jwtService.getAccessTokenExpirationMs() / 1000)
                 .build();
     }
 }
@@ -0,0 +1,192 @@
+package com.gkats.backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The type Product cache.
+ * Bounded, expiring read-through cache for catalog reads served by {@link ProductService}.
+ * Hit, miss and eviction statistics are published to the meter registry under the
+ * {@code cache.*} metrics, tagged with the cache name.
+ * Every invalidation bumps a generation counter. Loaders read {@link #generation()} before
+ * querying and hand it to the put, which drops the entry if an invalidation ran in between;
+ * otherwise rows read before a write committed would be cached after its invalidation and
+ * served until they expire.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    private static final String CATEGORIES_KEY = "categories";
+
+    private final Cache<Long, Product> productsById;
+    private final Cache<CategoryPageKey, CursorPage<ProductSummary>> categoryPages;
+    private final Cache<String, List<String>> categories;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Instantiates the Product cache.
+     *
+     * @param maxProducts      the maximum number of cached products
+     * @param maxCategoryPages the maximum number of cached category pages
+     * @param ttl              the time to live of an entry
+     * @param meterRegistry    the meter registry
+     */
+    public ProductCache(@Value("${spring.app.cache.products.max-size:10000}") long maxProducts,
+                        @Value("${spring.app.cache.category-pages.max-size:1000}") long maxCategoryPages,
+                        @Value("${spring.app.cache.ttl:5m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.productsById = build(maxProducts, ttl);
+        this.categoryPages = build(maxCategoryPages, ttl);
+        this.categories = build(1, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, productsById, "products.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, categoryPages, "products.byCategory");
+        CaffeineCacheMetrics.monitor(meterRegistry, categories, "products.categories");
+    }
+
+    /**
+     * Get a cached product.
+     *
+     * @param id the id
+     * @return the product, or null on a miss
+     */
+    public Product getProduct(Long id) {
+        return productsById.getIfPresent(id);
+    }
+
+    /**
+     * Get the current generation, to be read before loading an entry from the database.
+     *
+     * @return the generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache a product, unless it was invalidated since its load began.
+     *
+     * @param product    the product
+     * @param generation the generation read before the load
+     */
+    public void putProduct(Product product, long generation) {
+        putIfCurrent(productsById, product.getId(), product, generation);
+    }
+
+    /**
+     * Get a cached category page.
+     *
+     * @param category the category
+     * @param cursor   the cursor
+     * @param limit    the resolved page size
+     * @return the page, or null on a miss
+     */
+    public CursorPage<ProductSummary> getCategoryPage(String category, long cursor, int limit) {
+        return categoryPages.getIfPresent(new CategoryPageKey(normalize(category), cursor, limit));
+    }
+
+    /**
+     * Cache a category page, unless listings were invalidated since its load began.
+     *
+     * @param category   the category
+     * @param cursor     the cursor
+     * @param limit      the resolved page size
+     * @param page       the page
+     * @param generation the generation read before the load
+     */
+    public void putCategoryPage(String category, long cursor, int limit, CursorPage<ProductSummary> page,
+                                long generation) {
+        putIfCurrent(categoryPages, new CategoryPageKey(normalize(category), cursor, limit), page, generation);
+    }
+
+    /**
+     * Get the cached category list.
+     *
+     * @return the categories, or null on a miss
+     */
+    public List<String> getCategories() {
+        return categories.getIfPresent(CATEGORIES_KEY);
+    }
+
+    /**
+     * Cache the category list, unless listings were invalidated since its load began.
+     *
+     * @param categoryList the categories
+     * @param generation   the generation read before the load
+     */
+    public void putCategories(List<String> categoryList, long generation) {
+        putIfCurrent(categories, CATEGORIES_KEY, categoryList, generation);
+    }
+
+    /**
+     * Invalidate a product and every cached listing it may appear in.
+     *
+     * @param productId the product id, or null when only listings changed
+     */
+    public void invalidate(Long productId) {
+        generation.incrementAndGet();
+        if (productId != null) {
+            productsById.invalidate(productId);
+        }
+        categoryPages.invalidateAll();
+        categories.invalidateAll();
+        log.debug("Invalidated product cache for product {}", productId);
+    }
+
+    /**
+     * Invalidate many products and every cached listing.
+     *
+     * @param productIds the product ids
+     */
+    public void invalidateAll(Collection<Long> productIds) {
+        generation.incrementAndGet();
+        productsById.invalidateAll(productIds);
+        categoryPages.invalidateAll();
+        categories.invalidateAll();
+        log.debug("Invalidated product cache for {} products", productIds.size());
+    }
+
+    /**
+     * Put an entry loaded under a generation, and take it out again if an invalidation has
+     * started since. Invalidations bump the generation before clearing, so one that bumps
+     * after the re-check also clears after the put: either way the entry does not survive.
+     */
+    private <K, V> void putIfCurrent(Cache<K, V> cache, K key, V value, long loadedAt) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        cache.put(key, value);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static <K, V> Cache<K, V> build(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    private static String normalize(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+
+    private record CategoryPageKey(String category, long cursor, int limit) {
+    }
+}
@@ -0,0 +1,241 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The type Product catalog.
+ * In-memory copy of the products table, loaded once the application is ready and kept
+ * current by {@link ProductService} writes. Every registered {@link ProductIndex} is fed
+ * from here, and index hits are hydrated back into products without a database round trip.
+ * Its version, the ETag of list responses, is read from the products table rather than kept
+ * in memory, so it is the same on every instance and also changes with writes made by another
+ * instance or directly in the database: right after each write through this instance, and
+ * otherwise within one refresh interval.
+ */
+@Component
+@Slf4j
+public class ProductCatalog implements SchedulingConfigurer {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final List<ProductIndex> indexes;
+    private final Duration versionRefreshInterval;
+
+    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+    // Catalog-wide version, from CatalogStamp; until it is first read, one no client can hold
+    private final AtomicLong unverifiedVersions = new AtomicLong();
+    private volatile String version = unverifiedVersion();
+    private volatile boolean ready;
+    // Writes seen while the initial load is running, replayed on top of the loaded snapshot
+    private List<Runnable> pendingWrites;
+
+    /**
+     * Instantiates the Product catalog.
+     *
+     * @param productRepository  the product repository
+     * @param entityManager      the entity manager
+     * @param transactionManager the transaction manager
+     * @param indexes            the indexes to keep in sync
+     * @param versionRefreshInterval how often the version is read from the database
+     */
+    public ProductCatalog(ProductRepository productRepository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          List<ProductIndex> indexes,
+                          @Value("${spring.app.products.etag.refresh-interval:2s}") Duration versionRefreshInterval) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.indexes = indexes;
+        this.versionRefreshInterval = versionRefreshInterval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(
+                new FixedDelayTask(this::refreshVersion, versionRefreshInterval, versionRefreshInterval));
+    }
+
+    /**
+     * Load the catalog and build every index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        List<Product> loaded;
+        try {
+            loaded = readOnlyTransaction.execute(status -> {
+                List<Product> rows = new ArrayList<>();
+                try (Stream<Product> stream = productRepository.streamAll()) {
+                    stream.forEach(product -> {
+                        entityManager.detach(product);
+                        rows.add(product);
+                    });
+                }
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not load the product catalog, indexed reads fall back to the database", e);
+            synchronized (this) {
+                pendingWrites = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            products.clear();
+            Objects.requireNonNull(loaded).forEach(product -> products.put(product.getId(), product));
+            indexes.forEach(index -> index.rebuild(loaded));
+            pendingWrites.forEach(Runnable::run);
+            pendingWrites = null;
+            ready = true;
+        }
+        refreshVersion();
+        log.info("Loaded {} products into {} indexes in {} ms",
+                loaded.size(), indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Whether the catalog has been loaded and can answer reads.
+     *
+     * @return the boolean
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Get the catalog-wide version, usable as an ETag for list responses.
+     *
+     * @return the version
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Read the version from the products table. Called after every write through this instance
+     * and every refresh interval. If the read fails the version becomes one no client holds,
+     * so conditional requests are answered in full rather than risk a stale 304.
+     */
+    public void refreshVersion() {
+        try {
+            version = productRepository.findCatalogStamp().toString();
+        } catch (RuntimeException e) {
+            log.warn("Could not read the catalog version, list responses will not be revalidated", e);
+            version = unverifiedVersion();
+        }
+    }
+
+    /**
+     * Get a product by id.
+     *
+     * @param id the id
+     * @return the product, or null if it is not in the catalog
+     */
+    public Product get(Long id) {
+        return products.get(id);
+    }
+
+    /**
+     * Hydrate products by id, keeping the given order and skipping unknown ids.
+     *
+     * @param ids the ids
+     * @return the products
+     */
+    public List<Product> getAll(List<Long> ids) {
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = products.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add or replace a product in the catalog and every index.
+     *
+     * @param product the product
+     */
+    public synchronized void upsert(Product product) {
+        apply(() -> {
+            products.put(product.getId(), product);
+            indexes.forEach(index -> index.upsert(product));
+        });
+    }
+
+    /**
+     * Add or replace many products in the catalog and every index.
+     *
+     * @param batch the products
+     */
+    public synchronized void upsertAll(List<Product> batch) {
+        apply(() -> {
+            batch.forEach(product -> products.put(product.getId(), product));
+            indexes.forEach(index -> index.upsertAll(batch));
+        });
+    }
+
+    /**
+     * Remove a product from the catalog and every index.
+     *
+     * @param productId the product id
+     */
+    public synchronized void remove(Long productId) {
+        apply(() -> {
+            products.remove(productId);
+            indexes.forEach(index -> index.remove(productId));
+        });
+    }
+
+    /**
+     * Remove many products from the catalog and every index.
+     *
+     * @param productIds the product ids
+     */
+    public synchronized void removeAll(Collection<Long> productIds) {
+        apply(() -> {
+            productIds.forEach(products::remove);
+            indexes.forEach(index -> index.removeAll(productIds));
+        });
+    }
+
+    private String unverifiedVersion() {
+        return "unverified-" + System.currentTimeMillis() + "-" + unverifiedVersions.incrementAndGet();
+    }
+
+    private void apply(Runnable write) {
+        write.run();
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+    }
+}
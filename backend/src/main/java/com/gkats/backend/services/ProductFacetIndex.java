@@ -0,0 +1,268 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The type Product facet index.
+ * One bitset per category, per color and for availability, keyed by a dense product ordinal.
+ * Filters are bitset intersections and facet counts are intersection cardinalities, so
+ * combining filters and counting facets never needs a query or a {@code GROUP BY}.
+ */
+@Component
+public class ProductFacetIndex implements ProductIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private long[] idByOrdinal = new long[0];
+    private int nextOrdinal;
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Facet categories = new Facet();
+    private final Facet colors = new Facet();
+
+    @Override
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            ordinalById.clear();
+            freeOrdinals.clear();
+            idByOrdinal = new long[products.size()];
+            nextOrdinal = 0;
+            live.clear();
+            available.clear();
+            categories.clear();
+            colors.clear();
+            products.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> productIds) {
+        lock.writeLock().lock();
+        try {
+            productIds.forEach(this::delete);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filter products and count facets.
+     * Category counts ignore the category filter and color counts ignore the color filter,
+     * so each facet shows what selecting another value would return.
+     *
+     * @param category   the category, or null for any
+     * @param color      the color, or null for any
+     * @param onlyAvailable whether only available products match, or null for any
+     * @param restrictTo ids matched by other indexes (price, name), or null for no restriction
+     * @param afterId    only ids greater than this are returned
+     * @param limit      the maximum number of ids
+     * @return the match
+     */
+    public FacetMatch filter(String category, String color, Boolean onlyAvailable,
+                             long[] restrictTo, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet common = (BitSet) live.clone();
+            if (restrictTo != null) {
+                common.and(ordinalsOf(restrictTo));
+            }
+            if (onlyAvailable != null) {
+                if (onlyAvailable) {
+                    common.and(available);
+                } else {
+                    common.andNot(available);
+                }
+            }
+            BitSet categoryFilter = category == null ? null : categories.bits(category);
+            BitSet colorFilter = color == null ? null : colors.bits(color);
+
+            BitSet matches = (BitSet) common.clone();
+            and(matches, categoryFilter);
+            and(matches, colorFilter);
+
+            BitSet forCategoryCounts = (BitSet) common.clone();
+            and(forCategoryCounts, colorFilter);
+            BitSet forColorCounts = (BitSet) common.clone();
+            and(forColorCounts, categoryFilter);
+
+            return new FacetMatch(
+                    page(matches, afterId, limit),
+                    matches.cardinality(),
+                    categories.counts(forCategoryCounts),
+                    colors.counts(forColorCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] page(BitSet matches, long afterId, int limit) {
+        long[] ids = new long[matches.cardinality()];
+        int count = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (idByOrdinal[ordinal] > afterId) {
+                ids[count++] = idByOrdinal[ordinal];
+            }
+        }
+        Arrays.sort(ids, 0, count);
+        return Arrays.copyOf(ids, Math.min(count, limit));
+    }
+
+    private BitSet ordinalsOf(long[] ids) {
+        BitSet ordinals = new BitSet(nextOrdinal);
+        for (long id : ids) {
+            Integer ordinal = ordinalById.get(id);
+            if (ordinal != null) {
+                ordinals.set(ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    private static void and(BitSet target, BitSet filter) {
+        if (filter != null) {
+            target.and(filter);
+        }
+    }
+
+    private void add(Product product) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= idByOrdinal.length) {
+            idByOrdinal = Arrays.copyOf(idByOrdinal, Math.max(16, idByOrdinal.length * 2));
+        }
+        idByOrdinal[ordinal] = product.getId();
+        ordinalById.put(product.getId(), ordinal);
+        live.set(ordinal);
+        if (Boolean.TRUE.equals(product.getAvailable())) {
+            available.set(ordinal);
+        }
+        categories.set(product.getCategory(), ordinal);
+        colors.set(product.getColor(), ordinal);
+    }
+
+    private void delete(Long productId) {
+        Integer ordinal = ordinalById.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        available.clear(ordinal);
+        categories.clear(ordinal);
+        colors.clear(ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * The type Facet match.
+     *
+     * @param ids            the page of matching ids, in ascending order
+     * @param total          the number of matching products
+     * @param categoryCounts the number of products per category
+     * @param colorCounts    the number of products per color
+     */
+    public record FacetMatch(long[] ids, long total,
+                             Map<String, Integer> categoryCounts,
+                             Map<String, Integer> colorCounts) {
+    }
+
+    /**
+     * Bitsets for the values of one product attribute, matched case-insensitively.
+     */
+    private static final class Facet {
+        private final Map<String, BitSet> bitsByValue = new HashMap<>();
+        private final Map<String, String> displayByValue = new HashMap<>();
+
+        private BitSet bits(String value) {
+            BitSet bits = bitsByValue.get(normalize(value));
+            return bits == null ? new BitSet() : bits;
+        }
+
+        private void set(String value, int ordinal) {
+            String key = normalize(value);
+            if (key == null) {
+                return;
+            }
+            displayByValue.putIfAbsent(key, value.trim());
+            bitsByValue.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+        }
+
+        private void clear(int ordinal) {
+            bitsByValue.entrySet().removeIf(entry -> {
+                entry.getValue().clear(ordinal);
+                if (entry.getValue().isEmpty()) {
+                    displayByValue.remove(entry.getKey());
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private void clear() {
+            bitsByValue.clear();
+            displayByValue.clear();
+        }
+
+        private Map<String, Integer> counts(BitSet within) {
+            Map<String, Integer> counts = new HashMap<>();
+            bitsByValue.forEach((key, bits) -> {
+                BitSet intersection = (BitSet) bits.clone();
+                intersection.and(within);
+                int count = intersection.cardinality();
+                if (count > 0) {
+                    counts.put(displayByValue.get(key), count);
+                }
+            });
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+
+        private static String normalize(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.gkats.backend.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.ProductImportReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Product import service.
+ * Streams products out of a JSON array or NDJSON body and writes them in JDBC batches.
+ * A failing batch is retried row by row so one bad row only fails itself.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+
+    @Value("${spring.app.products.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${spring.app.products.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    /**
+     * Instantiates the Product import service.
+     *
+     * @param objectMapper   the object mapper
+     * @param productService the product service
+     */
+    @Autowired
+    public ProductImportService(ObjectMapper objectMapper, ProductService productService) {
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+    }
+
+    /**
+     * Import products from a JSON array.
+     * An element that is not an object is reported and skipped; malformed JSON stops the import,
+     * keeping the rows before it.
+     *
+     * @param body the request body
+     * @return the import report
+     * @throws IOException if the body cannot be read
+     */
+    public ProductImportReport importJsonArray(InputStream body) throws IOException {
+        Import run = new Import();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of products");
+            }
+            long row = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    row++;
+                    if (token != JsonToken.START_OBJECT) {
+                        // A scalar or nested array is still well-formed JSON, so the array carries on after it
+                        parser.skipChildren();
+                        run.malformed(row, "Expected a product object, found " + describe(token));
+                        continue;
+                    }
+                    run.accept(row, parser.readValueAs(Product.class));
+                }
+            } catch (JsonProcessingException e) {
+                // The array cannot be resynchronised after a broken element, keep what was read so far
+                run.malformed(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Import products from newline-delimited JSON, one product per line.
+     * A malformed line is reported and skipped.
+     *
+     * @param body the request body
+     * @return the import report
+     * @throws IOException if the body cannot be read
+     */
+    public ProductImportReport importNdjson(InputStream body) throws IOException {
+        Import run = new Import();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                Product product;
+                try {
+                    product = objectMapper.readValue(line, Product.class);
+                } catch (JsonProcessingException e) {
+                    run.malformed(row, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                run.accept(row, product);
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Accumulates rows into batches and keeps the running report.
+     */
+    private final class Import {
+        private final long start = System.nanoTime();
+        private final ProductImportReport report = new ProductImportReport();
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+
+        private void accept(long row, Product product) {
+            report.setReceived(report.getReceived() + 1);
+            String problem = validate(product);
+            if (problem != null) {
+                reject(row, problem);
+                return;
+            }
+            // Imports always create products; ids come from the sequence
+            product.setId(null);
+            batch.add(product);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void malformed(long row, String message) {
+            report.setReceived(report.getReceived() + 1);
+            reject(row, message);
+        }
+
+        private void reject(long row, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new ProductImportReport.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                productService.addProducts(batch);
+                report.setImported(report.getImported() + batch.size());
+            } catch (RuntimeException batchFailure) {
+                log.warn("Import batch of {} rows failed, retrying row by row: {}", batch.size(), batchFailure.getMessage());
+                for (int i = 0; i < batch.size(); i++) {
+                    Product product = batch.get(i);
+                    product.setId(null);
+                    try {
+                        productService.addProduct(product);
+                        report.setImported(report.getImported() + 1);
+                    } catch (RuntimeException rowFailure) {
+                        reject(batchRows.get(i), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                    }
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        private ProductImportReport finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - start;
+            report.setElapsedMs(elapsedNanos / 1_000_000);
+            report.setRowsPerSecond(elapsedNanos == 0 ? 0 : report.getImported() * 1_000_000_000d / elapsedNanos);
+            log.info("Imported {} of {} products ({} failed) at {} rows/s",
+                    report.getImported(), report.getReceived(), report.getFailed(), Math.round(report.getRowsPerSecond()));
+            return report;
+        }
+    }
+
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_ARRAY -> "an array";
+            case VALUE_STRING -> "a string";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "a number";
+            case VALUE_TRUE, VALUE_FALSE -> "a boolean";
+            case VALUE_NULL -> "null";
+            default -> token.name();
+        };
+    }
+
+    private static String validate(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return "Product name is required";
+        }
+        if (product.getPrice() != null && product.getPrice() < 0) {
+            return "Product price must not be negative";
+        }
+        return null;
+    }
+}
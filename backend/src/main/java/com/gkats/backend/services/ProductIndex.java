@@ -0,0 +1,54 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+
+import java.util.Collection;
+
+/**
+ * The interface Product index.
+ * An in-memory secondary index over the catalog, fed by {@link ProductCatalog}
+ * when the catalog is loaded and on every product write.
+ */
+public interface ProductIndex {
+
+    /**
+     * Replace the index contents with the given products.
+     *
+     * @param products the whole catalog
+     */
+    void rebuild(Collection<Product> products);
+
+    /**
+     * Add a product or replace its previous entry.
+     *
+     * @param product the product
+     */
+    void upsert(Product product);
+
+    /**
+     * Add or replace many products at once, e.g. after a bulk import batch.
+     * Indexes that publish copy-on-write snapshots override this to publish once per batch.
+     *
+     * @param products the products
+     */
+    default void upsertAll(Collection<Product> products) {
+        products.forEach(this::upsert);
+    }
+
+    /**
+     * Remove a product.
+     *
+     * @param productId the product id
+     */
+    void remove(Long productId);
+
+    /**
+     * Remove many products at once, e.g. after a bulk delete.
+     * Indexes override this to take their write lock or publish their snapshot once per batch.
+     *
+     * @param productIds the product ids
+     */
+    default void removeAll(Collection<Long> productIds) {
+        productIds.forEach(this::remove);
+    }
+}
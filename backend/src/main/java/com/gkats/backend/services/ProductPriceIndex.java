@@ -0,0 +1,264 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The type Product price index.
+ * Parallel primitive arrays of prices and product ids sorted by (price, id), searched by binary search.
+ * Readers work on an immutable snapshot and never block; writers publish a copied snapshot.
+ */
+@Component
+public class ProductPriceIndex implements ProductIndex {
+
+    // Each indexed product's price, to locate its slot on update and a page cursor's slot on read;
+    // written under the index lock, read without it
+    private final Map<Long, Double> prices = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new double[0], new long[0]);
+
+    @Override
+    public synchronized void rebuild(Collection<Product> products) {
+        Product[] sorted = products.stream()
+                .filter(product -> product.getPrice() != null)
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .toArray(Product[]::new);
+        double[] values = new double[sorted.length];
+        long[] ids = new long[sorted.length];
+        prices.clear();
+        for (int i = 0; i < sorted.length; i++) {
+            values[i] = sorted[i].getPrice();
+            ids[i] = sorted[i].getId();
+            prices.put(ids[i], values[i]);
+        }
+        snapshot = new Snapshot(values, ids);
+    }
+
+    @Override
+    public synchronized void upsert(Product product) {
+        Double previous = prices.get(product.getId());
+        Double price = product.getPrice();
+        if (previous != null && previous.equals(price)) {
+            return;
+        }
+        Snapshot current = previous == null ? snapshot : without(snapshot, previous, product.getId());
+        if (price == null) {
+            prices.remove(product.getId());
+            snapshot = current;
+            return;
+        }
+        prices.put(product.getId(), price);
+        snapshot = with(current, price, product.getId());
+    }
+
+    @Override
+    public synchronized void upsertAll(Collection<Product> products) {
+        // Drop the batch's previous entries, then merge its new entries in one pass
+        Set<Long> changed = new HashSet<>();
+        products.forEach(product -> {
+            changed.add(product.getId());
+            if (product.getPrice() == null) {
+                prices.remove(product.getId());
+            }
+        });
+        Product[] added = products.stream()
+                .filter(product -> product.getPrice() != null)
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .toArray(Product[]::new);
+        Snapshot current = snapshot;
+        int size = current.ids.length;
+        double[] values = new double[size + added.length];
+        long[] ids = new long[size + added.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < size || j < added.length) {
+            if (i < size && changed.contains(current.ids[i])) {
+                i++;
+            } else if (j >= added.length
+                    || (i < size && compare(current.prices[i], current.ids[i], added[j].getPrice(), added[j].getId()) < 0)) {
+                values[count] = current.prices[i];
+                ids[count++] = current.ids[i++];
+            } else {
+                values[count] = added[j].getPrice();
+                ids[count++] = added[j].getId();
+                prices.put(added[j].getId(), added[j].getPrice());
+                j++;
+            }
+        }
+        snapshot = new Snapshot(Arrays.copyOf(values, count), Arrays.copyOf(ids, count));
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        Double previous = prices.remove(productId);
+        if (previous != null) {
+            snapshot = without(snapshot, previous, productId);
+        }
+    }
+
+    @Override
+    public synchronized void removeAll(Collection<Long> productIds) {
+        // Drop the batch from the bookkeeping, then copy the survivors in one pass
+        Set<Long> removed = new HashSet<>();
+        for (Long productId : productIds) {
+            if (prices.remove(productId) != null) {
+                removed.add(productId);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        Snapshot current = snapshot;
+        int size = current.ids.length;
+        double[] values = new double[size];
+        long[] ids = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed.contains(current.ids[i])) {
+                values[count] = current.prices[i];
+                ids[count++] = current.ids[i];
+            }
+        }
+        snapshot = new Snapshot(Arrays.copyOf(values, count), Arrays.copyOf(ids, count));
+    }
+
+    /**
+     * Find ids of products priced within a range, in (price, id) order.
+     * The snapshot is kept in that order, so a page is the slice starting at the cursor, found
+     * by binary search on the cursor product's current price and id: O(log n + limit) however
+     * wide the range.
+     *
+     * @param minPrice the min price, inclusive
+     * @param maxPrice the max price, inclusive
+     * @param afterId  the id of the last product of the previous page, or 0 for the first page;
+     *                 a product no longer indexed ends the listing
+     * @param limit    the maximum number of ids
+     * @return the ids
+     */
+    public long[] idsInRange(double minPrice, double maxPrice, long afterId, int limit) {
+        Snapshot current = snapshot;
+        int from = lowerBound(current.prices, minPrice);
+        int to = upperBound(current.prices, maxPrice);
+        if (afterId > 0) {
+            Double afterPrice = prices.get(afterId);
+            if (afterPrice == null) {
+                return new long[0];
+            }
+            int slot = slotOf(current, afterPrice, afterId);
+            from = Math.max(from, slot >= 0 ? slot + 1 : -slot - 1);
+        }
+        if (from >= to || limit <= 0) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(current.ids, from, from + Math.min(limit, to - from));
+    }
+
+    /**
+     * Find ids of every product priced within a range, in price order.
+     * For callers that intersect the range with other matches rather than page through it.
+     *
+     * @param minPrice the min price, inclusive
+     * @param maxPrice the max price, inclusive
+     * @return the ids
+     */
+    public long[] allIdsInRange(double minPrice, double maxPrice) {
+        Snapshot current = snapshot;
+        int from = lowerBound(current.prices, minPrice);
+        int to = upperBound(current.prices, maxPrice);
+        return from >= to ? new long[0] : Arrays.copyOfRange(current.ids, from, to);
+    }
+
+    private static Snapshot with(Snapshot current, double price, long id) {
+        int slot = slotOf(current, price, id);
+        int insertAt = -slot - 1;
+        int size = current.ids.length;
+        double[] values = new double[size + 1];
+        long[] ids = new long[size + 1];
+        System.arraycopy(current.prices, 0, values, 0, insertAt);
+        System.arraycopy(current.ids, 0, ids, 0, insertAt);
+        values[insertAt] = price;
+        ids[insertAt] = id;
+        System.arraycopy(current.prices, insertAt, values, insertAt + 1, size - insertAt);
+        System.arraycopy(current.ids, insertAt, ids, insertAt + 1, size - insertAt);
+        return new Snapshot(values, ids);
+    }
+
+    private static Snapshot without(Snapshot current, double price, long id) {
+        int slot = slotOf(current, price, id);
+        if (slot < 0) {
+            return current;
+        }
+        int size = current.ids.length;
+        double[] values = new double[size - 1];
+        long[] ids = new long[size - 1];
+        System.arraycopy(current.prices, 0, values, 0, slot);
+        System.arraycopy(current.ids, 0, ids, 0, slot);
+        System.arraycopy(current.prices, slot + 1, values, slot, size - slot - 1);
+        System.arraycopy(current.ids, slot + 1, ids, slot, size - slot - 1);
+        return new Snapshot(values, ids);
+    }
+
+    /**
+     * Binary search on (price, id), returning the slot or {@code -(insertion point) - 1}.
+     */
+    private static int slotOf(Snapshot current, double price, long id) {
+        int low = 0;
+        int high = current.ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(current.prices[mid], current.ids[mid], price, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double leftPrice, long leftId, double rightPrice, long rightId) {
+        int cmp = Double.compare(leftPrice, rightPrice);
+        return cmp != 0 ? cmp : Long.compare(leftId, rightId);
+    }
+
+    private record Snapshot(double[] prices, long[] ids) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.gkats.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The type Product response cache.
+ * Holds hot catalog responses already serialized to JSON, raw and gzip-compressed, so a hit
+ * is written to the response as-is with no object mapping and no compression work.
+ * Entries remember the catalog ETag they were rendered under and only answer for that ETag;
+ * {@link ProductService} also drops every entry when a product write commits.
+ * Bounded by total body size and published to the meter registry as {@code products.responses}.
+ */
+@Component
+@Slf4j
+public class ProductResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinBytes;
+
+    /**
+     * Instantiates the Product response cache.
+     *
+     * @param objectMapper  the object mapper
+     * @param maxSize       the maximum total size of the cached bodies
+     * @param gzipMinSize   bodies smaller than this are not compressed
+     * @param ttl           the time to live of an entry
+     * @param meterRegistry the meter registry
+     */
+    public ProductResponseCache(ObjectMapper objectMapper,
+                                @Value("${spring.app.cache.responses.max-size:64MB}") DataSize maxSize,
+                                @Value("${spring.app.cache.responses.gzip-min-size:1KB}") DataSize gzipMinSize,
+                                @Value("${spring.app.cache.ttl:5m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.gzipMinBytes = (int) gzipMinSize.toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) -> response.size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "products.responses");
+    }
+
+    /**
+     * Get the serialized response for a key, rendering and caching it on a miss.
+     *
+     * @param key  the endpoint and its parameters
+     * @param etag the current catalog ETag
+     * @param body supplies the response body on a miss
+     * @return the cached response
+     */
+    public CachedResponse get(String key, String etag, Supplier<?> body) {
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            return cached;
+        }
+        // Rendered outside the cache lock; a racing miss just renders the same bytes twice
+        CachedResponse rendered = render(etag, body.get());
+        responses.put(key, rendered);
+        return rendered;
+    }
+
+    /**
+     * Drop every cached response.
+     */
+    public void invalidateAll() {
+        responses.invalidateAll();
+        log.debug("Invalidated product response cache");
+    }
+
+    private CachedResponse render(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(etag, json, json.length >= gzipMinBytes ? gzip(json) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A serialized response.
+     *
+     * @param etag the catalog ETag the body was rendered under
+     * @param json the JSON body
+     * @param gzip the gzip-compressed body, or null when the body is too small to be worth it
+     */
+    public record CachedResponse(String etag, byte[] json, byte[] gzip) {
+
+        /**
+         * Whether a compressed body is available.
+         *
+         * @return the boolean
+         */
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        private int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * The type Product search index.
+ * Tokenized inverted index over product name, sku and description. Query terms match
+ * index terms exactly or as a prefix (for search-as-you-type), every query term must match,
+ * and hits are ranked by field weight with name above sku above description.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final float NAME_WEIGHT = 3f;
+    private static final float SKU_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private final int maxPrefixExpansions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> product id -> accumulated field weight
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> termsByProduct = new HashMap<>();
+
+    /**
+     * Instantiates the Product search index.
+     *
+     * @param maxPrefixExpansions the maximum number of index terms a query prefix expands to
+     */
+    public ProductSearchIndex(@Value("${spring.app.search.max-prefix-expansions:256}") int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    @Override
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByProduct.clear();
+            products.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Product product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> productIds) {
+        lock.writeLock().lock();
+        try {
+            productIds.forEach(this::delete);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search product ids, best match first.
+     *
+     * @param query the query
+     * @param limit the maximum number of ids
+     * @return the matching ids
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String term : queryTerms) {
+                Map<Long, Float> termScores = score(term);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Split a query into the terms {@link #search} matches.
+     *
+     * @param query the query
+     * @return the terms, lowercased, in query order
+     */
+    static List<String> queryTerms(String query) {
+        return new ArrayList<>(tokenize(query));
+    }
+
+    /**
+     * Whether a product matches every query term the way {@link #search} does: each term equals,
+     * or is a prefix of, a token of the product's name, sku or description.
+     *
+     * @param product the product
+     * @param terms   the query terms, from {@link #queryTerms}
+     * @return the boolean
+     */
+    static boolean matches(Product product, List<String> terms) {
+        Set<String> tokens = tokenize(product.getName());
+        tokens.addAll(tokenize(product.getSku()));
+        tokens.addAll(tokenize(product.getDescription()));
+        return terms.stream().allMatch(term -> tokens.stream().anyMatch(token -> token.startsWith(term)));
+    }
+
+    private Map<Long, Float> score(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(term, true).entrySet()) {
+            String indexTerm = entry.getKey();
+            if (!indexTerm.startsWith(term) || expansions++ >= maxPrefixExpansions) {
+                break;
+            }
+            float factor = indexTerm.length() == term.length() ? 1f : PREFIX_MATCH_FACTOR;
+            // A product matching several expansions of the same prefix keeps its best one
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static Map<Long, Float> intersect(Map<Long, Float> left, Map<Long, Float> right) {
+        Map<Long, Float> result = new HashMap<>();
+        left.forEach((id, score) -> {
+            Float other = right.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    private void add(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+        tokenize(product.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+        tokenize(product.getSku()).forEach(term -> weights.merge(term, SKU_WEIGHT, Float::sum));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+        termsByProduct.put(product.getId(), weights.keySet());
+    }
+
+    private void delete(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
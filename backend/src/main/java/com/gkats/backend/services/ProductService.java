@@ -1,15 +1,42 @@
 package com.gkats.backend.services;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gkats.backend.model.Product;
 import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductFields;
+import com.gkats.backend.utils.ProductFilterResult;
+import com.gkats.backend.utils.ProductSuggestions;
+import com.gkats.backend.utils.ProductSummary;
+import com.gkats.backend.utils.SingleFlight;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * The type Product service.
@@ -19,67 +46,383 @@ import java.util.List;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final ProductResponseCache productResponseCache;
+    private final ProductCatalog productCatalog;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductPriceIndex productPriceIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<Long, Product> productLoads;
+    private final SingleFlight<List<Object>, CursorPage<ProductSummary>> categoryLoads;
+    private final SingleFlight<List<Object>, List<ProductSummary>> priceRangeLoads;
+    private final SingleFlight<List<Object>, List<ProductSummary>> searchLoads;
 
+    private static final String SOURCE_DATABASE = "database";
+    private static final String SOURCE_INDEX = "index";
+    private static final String SOURCE_CACHE = "cache";
+    private static final int SEARCH_CANDIDATE_BATCH = 500;
+
+    @Value("${spring.app.products.page.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${spring.app.products.page.max-limit:200}")
+    private int maxPageLimit;
+
+    @Value("${spring.app.suggest.default-limit:8}")
+    private int defaultSuggestLimit;
+
+    @Value("${spring.app.suggest.max-limit:20}")
+    private int maxSuggestLimit;
+
+    @Value("${spring.app.products.export.flush-every:500}")
+    private int exportFlushEvery;
 
     /**
      * Instantiates the Product service.
      *
      * @param productRepository the productRepository service
+     * @param entityManager     the entity manager
+     * @param objectMapper      the object mapper
+     * @param productCache      the product cache
+     * @param productResponseCache the serialized catalog response cache
+     * @param productCatalog    the in-memory product catalog
+     * @param productSearchIndex the product search index
+     * @param productSuggestIndex the product suggest index
+     * @param productPriceIndex the product price index
+     * @param productFacetIndex the product facet index
+     * @param meterRegistry     the meter registry
+     * @param loadTimeout       how long a request waits for a database load another request already started
      */
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          EntityManager entityManager,
+                          ObjectMapper objectMapper,
+                          ProductCache productCache,
+                          ProductResponseCache productResponseCache,
+                          ProductCatalog productCatalog,
+                          ProductSearchIndex productSearchIndex,
+                          ProductSuggestIndex productSuggestIndex,
+                          ProductPriceIndex productPriceIndex,
+                          ProductFacetIndex productFacetIndex,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.app.products.single-flight.timeout:5s}") Duration loadTimeout) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.productCache = productCache;
+        this.productResponseCache = productResponseCache;
+        this.productCatalog = productCatalog;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productPriceIndex = productPriceIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.meterRegistry = meterRegistry;
+        this.productLoads = new SingleFlight<>("byId", loadTimeout, meterRegistry);
+        this.categoryLoads = new SingleFlight<>("category", loadTimeout, meterRegistry);
+        this.priceRangeLoads = new SingleFlight<>("priceRange", loadTimeout, meterRegistry);
+        this.searchLoads = new SingleFlight<>("search", loadTimeout, meterRegistry);
+    }
+
+    /**
+     * Get a page of products.
+     *
+     * @param cursor the id of the last product of the previous page, or null for the first page
+     * @param limit  the requested page size, or null for the default
+     * @return the page of product summaries
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummary> getProducts(Long cursor, Integer limit) {
+        int pageLimit = resolveLimit(limit);
+        return CursorPage.of(
+                recordRows("list", SOURCE_DATABASE,
+                        productRepository.findByIdGreaterThanOrderByIdAsc(startOf(cursor), Limit.of(pageLimit + 1))),
+                pageLimit, ProductSummary::id);
     }
 
     /**
-     * Get products list.
+     * Get a page of products with only the requested fields, selected in SQL.
      *
-     * @return the list of products
+     * @param cursor the id of the last product of the previous page, or null for the first page
+     * @param limit  the requested page size, or null for the default
+     * @param fields the fields to return
+     * @return the page of products
      */
-    public List<Product> getProducts() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getProductFields(Long cursor, Integer limit, ProductFields fields) {
+        int pageLimit = resolveLimit(limit);
+        return CursorPage.of(
+                recordRows("list", SOURCE_DATABASE,
+                        productRepository.findFields(fields, null, null, null, startOf(cursor), pageLimit + 1)),
+                pageLimit, ProductService::idOf);
     }
 
     /**
      * Get product by id.
+     * Concurrent cache misses for the same id share one database load. Not transactional, so a
+     * request waiting for another request's load does not hold a pooled connection meanwhile.
      *
      * @param id the id
      * @return the product
      */
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found for ID: " + id));
+        Product cached = productCache.getProduct(id);
+        if (cached != null) {
+            return cached;
+        }
+        return productLoads.load(id, () -> {
+            long generation = productCache.generation();
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found for ID: " + id));
+            productCache.putProduct(product, generation);
+            return product;
+        });
+    }
+
+    /**
+     * Get a page of products by category.
+     * Concurrent cache misses for the same page share one database load.
+     *
+     * @param category the category
+     * @param cursor   the id of the last product of the previous page, or null for the first page
+     * @param limit    the requested page size, or null for the default
+     * @return the page of product summaries
+     */
+    public CursorPage<ProductSummary> getProductsByCategory(String category, Long cursor, Integer limit) {
+        int pageLimit = resolveLimit(limit);
+        long start = startOf(cursor);
+        CursorPage<ProductSummary> cached = productCache.getCategoryPage(category, start, pageLimit);
+        if (cached != null) {
+            recordRows("category", SOURCE_CACHE, cached.getItems());
+            return cached;
+        }
+        return categoryLoads.load(Arrays.asList(category, start, pageLimit), () -> {
+            long generation = productCache.generation();
+            CursorPage<ProductSummary> page = CursorPage.of(
+                    recordRows("category", SOURCE_DATABASE,
+                            productRepository.findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(
+                                    category, start, Limit.of(pageLimit + 1))),
+                    pageLimit, ProductSummary::id);
+            productCache.putCategoryPage(category, start, pageLimit, page, generation);
+            return page;
+        });
     }
 
     /**
-     * Get products by category.
+     * Get a page of products by category with only the requested fields, selected in SQL.
      *
      * @param category the category
-     * @return the list of products
+     * @param cursor   the id of the last product of the previous page, or null for the first page
+     * @param limit    the requested page size, or null for the default
+     * @param fields   the fields to return
+     * @return the page of products
      */
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoringCase(category);
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getProductFieldsByCategory(String category, Long cursor, Integer limit,
+                                                                      ProductFields fields) {
+        int pageLimit = resolveLimit(limit);
+        return CursorPage.of(
+                recordRows("category", SOURCE_DATABASE,
+                        productRepository.findFields(fields, category, null, null, startOf(cursor), pageLimit + 1)),
+                pageLimit, ProductService::idOf);
     }
 
     /**
-     * Get products by price range.
+     * Get a page of products by price range, cheapest first and by id among equal prices.
+     * A page resumes after the cursor product's current price and id, and is empty if that
+     * product has since been deleted. Served from the in-memory price index; the database is only
+     * queried while the catalog is still loading, with concurrent identical queries sharing one load.
      *
      * @param minPrice the min price
      * @param maxPrice the max price
-     * @return the list of products
+     * @param cursor   the id of the last product of the previous page, or null for the first page
+     * @param limit    the requested page size, or null for the default
+     * @return the page of product summaries
      */
-    public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+    public CursorPage<ProductSummary> getProductsByPriceRange(Double minPrice, Double maxPrice, Long cursor, Integer limit) {
+        int pageLimit = resolveLimit(limit);
+        long start = startOf(cursor);
+        if (productCatalog.isReady()) {
+            long[] ids = productPriceIndex.idsInRange(minPrice, maxPrice, start, pageLimit + 1);
+            return CursorPage.of(recordRows("priceRange", SOURCE_INDEX, summaries(boxed(ids))),
+                    pageLimit, ProductSummary::id);
+        }
+        return CursorPage.of(
+                priceRangeLoads.load(Arrays.asList(minPrice, maxPrice, start, pageLimit), () ->
+                        recordRows("priceRange", SOURCE_DATABASE,
+                                productRepository.findByPriceBetweenAfterOrderByPriceAscIdAsc(
+                                        minPrice, maxPrice, start, Limit.of(pageLimit + 1)))),
+                pageLimit, ProductSummary::id);
     }
 
     /**
-     * Search products by name.
+     * Get a page of products by price range with only the requested fields, in the order of
+     * {@link #getProductsByPriceRange}.
+     * Projected from the in-memory catalog when it is loaded, otherwise selected in SQL.
      *
-     * @param name the name
-     * @return the list of products
+     * @param minPrice the min price
+     * @param maxPrice the max price
+     * @param cursor   the id of the last product of the previous page, or null for the first page
+     * @param limit    the requested page size, or null for the default
+     * @param fields   the fields to return
+     * @return the page of products
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getProductFieldsByPriceRange(Double minPrice, Double maxPrice, Long cursor,
+                                                                        Integer limit, ProductFields fields) {
+        int pageLimit = resolveLimit(limit);
+        if (productCatalog.isReady()) {
+            long[] ids = productPriceIndex.idsInRange(minPrice, maxPrice, startOf(cursor), pageLimit + 1);
+            return CursorPage.of(
+                    recordRows("priceRange", SOURCE_INDEX,
+                            productCatalog.getAll(boxed(ids)).stream().map(fields::project).toList()),
+                    pageLimit, ProductService::idOf);
+        }
+        return CursorPage.of(
+                recordRows("priceRange", SOURCE_DATABASE,
+                        productRepository.findFields(fields, null, minPrice, maxPrice, startOf(cursor), pageLimit + 1)),
+                pageLimit, ProductService::idOf);
+    }
+
+    /**
+     * Filter products by any combination of category, color, availability, price range and
+     * name query, with per-category and per-color counts. Answered from the in-memory indexes.
+     *
+     * @param category  the category, or null for any
+     * @param color     the color, or null for any
+     * @param available the availability, or null for any
+     * @param minPrice  the min price, or null for no lower bound
+     * @param maxPrice  the max price, or null for no upper bound
+     * @param name      the name query, or null for any
+     * @param cursor    the id of the last product of the previous page, or null for the first page
+     * @param limit     the requested page size, or null for the default
+     * @return the filtered page with facet counts
+     * @throws IllegalStateException if the catalog has not been loaded yet
      */
-    public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+    public ProductFilterResult filterProducts(String category, String color, Boolean available,
+                                              Double minPrice, Double maxPrice, String name,
+                                              Long cursor, Integer limit) {
+        if (!productCatalog.isReady()) {
+            throw new IllegalStateException("Product catalog is still loading");
+        }
+        int pageLimit = resolveLimit(limit);
+        long[] restrictTo = null;
+        if (minPrice != null || maxPrice != null) {
+            restrictTo = productPriceIndex.allIdsInRange(
+                    minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                    maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice);
+        }
+        if (name != null && !name.isBlank()) {
+            long[] nameMatches = productSearchIndex.search(name, Integer.MAX_VALUE).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            restrictTo = restrictTo == null ? nameMatches : intersectSorted(restrictTo, nameMatches);
+        }
+        ProductFacetIndex.FacetMatch match = productFacetIndex.filter(
+                category, color, available, restrictTo, startOf(cursor), pageLimit + 1);
+        CursorPage<ProductSummary> page = CursorPage.of(
+                recordRows("filter", SOURCE_INDEX, summaries(boxed(match.ids()))), pageLimit, ProductSummary::id);
+        return new ProductFilterResult(page.getItems(), page.getNextCursor(), match.total(),
+                match.categoryCounts(), match.colorCounts());
+    }
+
+    /**
+     * Search products by name, sku and description, best match first.
+     * Every query term must equal or start a word of one of those fields, so "phone" finds
+     * "Phone Case" but not "iPhone". Served from the in-memory search index; the database is only
+     * queried while the catalog is still loading, with the same matching but in id order rather
+     * than by relevance, and concurrent identical searches sharing one load.
+     *
+     * @param name  the query
+     * @param limit the requested number of results, or null for the default
+     * @return the product summaries
+     */
+    public List<ProductSummary> searchProductsByName(String name, Integer limit) {
+        int resultLimit = resolveLimit(limit);
+        if (productCatalog.isReady()) {
+            return recordRows("search", SOURCE_INDEX, summaries(productSearchIndex.search(name, resultLimit)));
+        }
+        return searchLoads.load(Arrays.asList(name, resultLimit), () ->
+                recordRows("search", SOURCE_DATABASE, searchDatabase(name, resultLimit)));
+    }
+
+    /**
+     * Search the database with the index's matching rules. The longest query term narrows the
+     * rows in SQL by substring, and each batch of candidates is then checked term by term.
+     *
+     * @param query the query
+     * @param limit the maximum number of results
+     * @return the matching product summaries, in id order
+     */
+    private List<ProductSummary> searchDatabase(String query, int limit) {
+        List<String> terms = ProductSearchIndex.queryTerms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String probe = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        List<ProductSummary> matches = new ArrayList<>(limit);
+        long cursor = 0L;
+        while (matches.size() < limit) {
+            List<Product> candidates = productRepository.findSearchCandidates(
+                    probe, cursor, Limit.of(SEARCH_CANDIDATE_BATCH));
+            for (Product candidate : candidates) {
+                if (matches.size() < limit && ProductSearchIndex.matches(candidate, terms)) {
+                    matches.add(ProductSummary.of(candidate));
+                }
+            }
+            if (candidates.size() < SEARCH_CANDIDATE_BATCH) {
+                break;
+            }
+            cursor = candidates.get(candidates.size() - 1).getId();
+        }
+        return matches;
+    }
+
+    /**
+     * Suggest product names and categories for a typed prefix.
+     * Answered from the in-memory suggest index only; empty until the catalog has loaded.
+     *
+     * @param prefix the prefix
+     * @param limit  the requested number of names and of categories, or null for the default
+     * @return the suggestions
+     */
+    public ProductSuggestions suggest(String prefix, Integer limit) {
+        int suggestLimit = limit == null || limit <= 0 ? defaultSuggestLimit : Math.min(limit, maxSuggestLimit);
+        return productSuggestIndex.suggest(prefix, suggestLimit);
+    }
+
+    /**
+     * Export the whole catalog as newline-delimited JSON.
+     * Rows are read through a database cursor and detached as soon as they are
+     * written, so heap use does not grow with the size of the catalog.
+     *
+     * @param out the output stream
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Product.class);
+        long written = 0;
+        try (Stream<Product> products = productRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+                entityManager.detach(product);
+                // Flush the first row right away and then in chunks so the client starts receiving immediately
+                if (written++ % exportFlushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        rowsSummary("export", SOURCE_DATABASE).record(written);
+        log.debug("Exported {} products", written);
     }
 
     /**
@@ -87,60 +430,330 @@ public class ProductService {
      *
      * @return the list of categories
      */
+    @Transactional(readOnly = true)
     public List<String> getCategories() {
-        return productRepository.findDistinctCategory();
+        List<String> cached = productCache.getCategories();
+        if (cached != null) {
+            return cached;
+        }
+        long generation = productCache.generation();
+        List<String> categories = productRepository.findDistinctCategory();
+        productCache.putCategories(categories, generation);
+        return categories;
     }
 
     /**
      * Save product.
+     * Always creates a new product: an id, version or last-modified time in the body is ignored,
+     * changes to existing products go through {@link #updateProduct}.
      *
      * @param product the product
      * @return the product
      */
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(asNew(product));
+        afterCommit(() -> onProductSaved(savedProduct));
+        return savedProduct;
+    }
+
+    /**
+     * Save a batch of new products in one transaction.
+     * Hibernate groups the inserts into JDBC batches of {@code hibernate.jdbc.batch_size}.
+     * As with {@link #addProduct}, every product is created new.
+     *
+     * @param products the products
+     * @return the saved products
+     */
+    @Transactional
+    public List<Product> addProducts(List<Product> products) {
+        products.forEach(ProductService::asNew);
+        List<Product> savedProducts = productRepository.saveAll(products);
+        productRepository.flush();
+        List<Product> committed = List.copyOf(savedProducts);
+        afterCommit(() -> onProductsSaved(committed));
+        return savedProducts;
     }
 
     /**
      * Delete product by id.
+     * A single DELETE statement; a missing product is detected from the affected row count.
      *
      * @param productId the product id
      */
     @Transactional
     public void deleteProduct(long productId) {
-        if (productRepository.existsById(productId)) {
-            productRepository.deleteProductById(productId);
-        } else {
+        if (productRepository.deleteByIds(List.of(productId)) == 0) {
             throw new EntityNotFoundException("Product not found with ID: " + productId);
         }
+        afterCommit(() -> onProductDeleted(productId));
+    }
+
+    /**
+     * Delete products by id in a single statement.
+     *
+     * @param productIds the product ids
+     * @return the number of deleted products
+     */
+    @Transactional
+    public int deleteProducts(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = productRepository.deleteByIds(productIds);
+        List<Long> removed = List.copyOf(productIds);
+        afterCommit(() -> onProductsDeleted(removed));
+        return deleted;
     }
 
     /**
      * Update product.
+     * Non-null fields of {@code product} are written with a single UPDATE statement and a
+     * missing product is detected from the affected row count. When the in-memory catalog holds
+     * the product, its version guards the update and the returned product is merged from it
+     * without a SELECT.
      *
-     * @param product the product
+     * @param productId       the product id
+     * @param product         the fields to change
+     * @param expectedVersion the version the caller last saw (If-Match), or null to update unconditionally
      * @return the product
+     * @throws OptimisticLockingFailureException if the product is no longer at {@code expectedVersion}
      */
-    public Product updateProduct(Long productId, Product product) {
-        // Retrieve existing product by ID
-        Product existingProduct = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found for ID: " + productId));
+    @Transactional
+    public Product updateProduct(Long productId, Product product, Long expectedVersion) {
+        Product cataloged = productCatalog.get(productId);
+        Long guard = expectedVersion != null ? expectedVersion
+                : cataloged != null ? cataloged.getVersion() : null;
+        Instant now = Instant.now();
+        int updated = updateNonNullFields(List.of(productId), product, guard, now);
+        if (updated == 0 && expectedVersion == null && guard != null) {
+            // The catalog copy is behind the database, apply the change unconditionally
+            guard = null;
+            updated = updateNonNullFields(List.of(productId), product, null, now);
+        }
+        if (updated == 0) {
+            if (expectedVersion != null && productRepository.existsById(productId)) {
+                throw new OptimisticLockingFailureException("Product " + productId + " was modified, expected version " + expectedVersion);
+            }
+            throw new EntityNotFoundException("Product not found for ID: " + productId);
+        }
+        Product savedProduct;
+        if (cataloged != null && guard != null && guard.equals(cataloged.getVersion())) {
+            savedProduct = cataloged.toBuilder().version(guard + 1).lastModified(now).build();
+            mergeNonNullFields(savedProduct, product);
+        } else {
+            savedProduct = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found for ID: " + productId));
+        }
+        afterCommit(() -> onProductSaved(savedProduct));
+        return savedProduct;
+    }
 
-        // Update fields only if the new values are not null
-        if (product.getName() != null) existingProduct.setName(product.getName());
-        if (product.getDescription() != null) existingProduct.setDescription(product.getDescription());
-        if (product.getPrice() != null) existingProduct.setPrice(product.getPrice());
-        if (product.getCategory() != null) existingProduct.setCategory(product.getCategory());
-        if (product.getImageurl() != null) existingProduct.setImageurl(product.getImageurl());
-        if (product.getAvailable() != null) existingProduct.setAvailable(product.getAvailable());
-        if (product.getSku() != null) existingProduct.setSku(product.getSku());
-        if (product.getDimensions() != null) existingProduct.setDimensions(product.getDimensions());
-        if (product.getColor() != null) existingProduct.setColor(product.getColor());
+    /**
+     * Apply the same partial update to many products in a single statement,
+     * e.g. for admin price changes.
+     *
+     * @param productIds the product ids
+     * @param product    the fields to change
+     * @return the number of updated products
+     */
+    @Transactional
+    public int updateProducts(List<Long> productIds, Product product) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        int updated = updateNonNullFields(productIds, product, null, Instant.now());
+        // One SELECT for the whole batch keeps the catalog exact, including the bumped versions
+        List<Product> savedProducts = productRepository.findAllById(productIds);
+        afterCommit(() -> onProductsSaved(savedProducts));
+        return updated;
+    }
+
+    /**
+     * Get the ETag of list responses, derived from the catalog-wide version, see {@link ProductCatalog}.
+     *
+     * @return the ETag
+     */
+    public String getCatalogETag() {
+        return "\"catalog-" + productCatalog.getVersion() + "\"";
+    }
+
+    /**
+     * Copy the non-null fields of {@code changes} onto {@code target}.
+     *
+     * @param target  the product to update
+     * @param changes the fields to change
+     */
+    public static void mergeNonNullFields(Product target, Product changes) {
+        if (changes.getName() != null) target.setName(changes.getName());
+        if (changes.getDescription() != null) target.setDescription(changes.getDescription());
+        if (changes.getPrice() != null) target.setPrice(changes.getPrice());
+        if (changes.getCategory() != null) target.setCategory(changes.getCategory());
+        if (changes.getImageurl() != null) target.setImageurl(changes.getImageurl());
+        if (changes.getAvailable() != null) target.setAvailable(changes.getAvailable());
+        if (changes.getSku() != null) target.setSku(changes.getSku());
+        if (changes.getDimensions() != null) target.setDimensions(changes.getDimensions());
+        if (changes.getColor() != null) target.setColor(changes.getColor());
+    }
+
+    /**
+     * Clear the fields the database assigns, so saving the product inserts it. With an id
+     * {@code save()} would merge into, or fail on, whatever row has that id.
+     */
+    private static Product asNew(Product product) {
+        product.setId(null);
+        product.setVersion(null);
+        product.setLastModified(null);
+        return product;
+    }
+
+    private int updateNonNullFields(List<Long> productIds, Product product, Long expectedVersion, Instant now) {
+        return productRepository.updateNonNullFields(productIds, expectedVersion, now,
+                product.getName(), product.getDescription(), product.getPrice(),
+                product.getCategory(), product.getImageurl(), product.getAvailable(),
+                product.getSku(), product.getDimensions(), product.getColor());
+    }
+
+    /**
+     * Record the rows a list query returned, as the {@code products.query.rows} distribution
+     * tagged with the query and where the rows came from (database, in-memory index or cache).
+     */
+    private <T> List<T> recordRows(String query, String source, List<T> rows) {
+        rowsSummary(query, source).record(rows.size());
+        return rows;
+    }
+
+    private DistributionSummary rowsSummary(String query, String source) {
+        return DistributionSummary.builder("products.query.rows")
+                .description("Rows returned per product list query")
+                .baseUnit("rows")
+                .tag("query", query)
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Clamp the requested page size to the configured bounds.
+     * Requests that resolve to the same page size get the same page, so response cache keys use this.
+     *
+     * @param limit the requested page size, or null for the default
+     * @return the page size to use
+     */
+    public int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageLimit;
+        }
+        return Math.min(limit, maxPageLimit);
+    }
+
+    /**
+     * Propagate a saved product to the cache and the in-memory catalog.
+     *
+     * @param product the saved product
+     */
+    private void onProductSaved(Product product) {
+        productCache.invalidate(product.getId());
+        productResponseCache.invalidateAll();
+        productCatalog.upsert(product);
+        productCatalog.refreshVersion();
+    }
 
-        // Save the updated product
-        return productRepository.save(existingProduct);
+    /**
+     * Propagate a batch of saved products to the cache and the in-memory catalog.
+     *
+     * @param products the saved products
+     */
+    private void onProductsSaved(List<Product> products) {
+        productCache.invalidateAll(products.stream().map(Product::getId).toList());
+        productResponseCache.invalidateAll();
+        productCatalog.upsertAll(products);
+        productCatalog.refreshVersion();
+    }
+
+    /**
+     * Propagate a deleted product to the cache and the in-memory catalog.
+     *
+     * @param productId the product id
+     */
+    private void onProductDeleted(Long productId) {
+        productCache.invalidate(productId);
+        productResponseCache.invalidateAll();
+        productCatalog.remove(productId);
+        productCatalog.refreshVersion();
+    }
+
+    /**
+     * Propagate a batch of deleted products to the cache and the in-memory catalog.
+     *
+     * @param productIds the product ids
+     */
+    private void onProductsDeleted(List<Long> productIds) {
+        productCache.invalidateAll(productIds);
+        productResponseCache.invalidateAll();
+        productCatalog.removeAll(productIds);
+        productCatalog.refreshVersion();
+    }
+
+    /**
+     * Run an action once the current transaction commits, or right away when there is none.
+     * Keeps in-memory state from reflecting writes that end up rolled back.
+     *
+     * @param action the action
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Summarize in-memory catalog products, in the order of the given ids.
+     *
+     * @param ids the product ids
+     * @return the product summaries
+     */
+    private List<ProductSummary> summaries(List<Long> ids) {
+        return productCatalog.getAll(ids).stream().map(ProductSummary::of).toList();
     }
 
+    private static Long idOf(Map<String, Object> row) {
+        return (Long) row.get("id");
+    }
 
+    private static List<Long> boxed(long[] ids) {
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
 
+    /**
+     * Intersect two id arrays. The first is sorted in place.
+     *
+     * @param sorted the ids to sort and probe
+     * @param ids    the other ids
+     * @return the ids present in both
+     */
+    private static long[] intersectSorted(long[] sorted, long[] ids) {
+        Arrays.sort(sorted);
+        return Arrays.stream(ids).filter(id -> Arrays.binarySearch(sorted, id) >= 0).toArray();
+    }
+
+    /**
+     * Ids are positive, so a missing cursor starts from the beginning.
+     *
+     * @param cursor the cursor
+     * @return the id to start after
+     */
+    private static long startOf(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
 }
@@ -0,0 +1,405 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.ProductSuggestions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The type Product suggest index.
+ * Sorted prefix arrays of distinct product names and categories for autocomplete, with the
+ * number of products using each. Readers binary-search an immutable snapshot without locking
+ * and rank the matches by that count.
+ * A prefix matching more than {@code scanLimit} terms is answered from a top list computed when
+ * the snapshot was built, so short prefixes on a large catalog cost the same as long ones.
+ * Writes do not copy the term arrays: the terms they changed are published as a sorted delta
+ * next to them, and the arrays are only rebuilt once the delta outgrows {@code deltaLimit}, so a
+ * rebuild is shared by hundreds of single-product writes.
+ */
+@Component
+public class ProductSuggestIndex implements ProductIndex {
+
+    private static final int SCAN_LIMIT = 1024;
+    private static final int DELTA_LIMIT = 1024;
+    private static final int TOP_SLACK = 16;
+
+    private final int scanLimit;
+    private final int deltaLimit;
+    // Entries kept per precomputed top list: maxLimit plus room for changed terms to be dropped
+    private final int topWidth;
+
+    // lowercased term -> display form and number of products using it, kept sorted for snapshotting
+    private final TreeMap<String, Term> names = new TreeMap<>();
+    private final TreeMap<String, Term> categories = new TreeMap<>();
+    // Terms whose count changed since the arrays were last built
+    private final TreeSet<String> changedNames = new TreeSet<>();
+    private final TreeSet<String> changedCategories = new TreeSet<>();
+    private final Map<Long, Entry> indexed = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Instantiates the Product suggest index.
+     *
+     * @param maxLimit the most suggestions of each kind a caller may ask for
+     */
+    @Autowired
+    public ProductSuggestIndex(@Value("${spring.app.suggest.max-limit:20}") int maxLimit) {
+        this(maxLimit, SCAN_LIMIT, DELTA_LIMIT, TOP_SLACK);
+    }
+
+    ProductSuggestIndex(int maxLimit, int scanLimit, int deltaLimit, int topSlack) {
+        this.scanLimit = scanLimit;
+        this.deltaLimit = deltaLimit;
+        this.topWidth = maxLimit + topSlack;
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Product> products) {
+        names.clear();
+        categories.clear();
+        indexed.clear();
+        products.forEach(this::add);
+        publish(true);
+    }
+
+    @Override
+    public synchronized void upsert(Product product) {
+        delete(product.getId());
+        add(product);
+        publish(false);
+    }
+
+    @Override
+    public synchronized void upsertAll(Collection<Product> products) {
+        for (Product product : products) {
+            delete(product.getId());
+            add(product);
+        }
+        publish(false);
+    }
+
+    @Override
+    public synchronized void remove(Long productId) {
+        if (delete(productId)) {
+            publish(false);
+        }
+    }
+
+    @Override
+    public synchronized void removeAll(Collection<Long> productIds) {
+        boolean deleted = false;
+        for (Long productId : productIds) {
+            deleted |= delete(productId);
+        }
+        if (deleted) {
+            publish(false);
+        }
+    }
+
+    /**
+     * Suggest the product names and categories starting with a prefix that the most products
+     * use, most used first and alphabetically among equally used ones.
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of names and of categories
+     * @return the suggestions
+     */
+    public ProductSuggestions suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null || limit <= 0) {
+            return new ProductSuggestions(List.of(), List.of());
+        }
+        Snapshot current = snapshot;
+        return new ProductSuggestions(current.names.top(key, limit), current.categories.top(key, limit));
+    }
+
+    private void add(Product product) {
+        indexed.put(product.getId(), new Entry(product.getName(), product.getCategory()));
+        increment(names, changedNames, product.getName());
+        increment(categories, changedCategories, product.getCategory());
+    }
+
+    private boolean delete(Long productId) {
+        Entry previous = indexed.remove(productId);
+        if (previous == null) {
+            return false;
+        }
+        decrement(names, changedNames, previous.name);
+        decrement(categories, changedCategories, previous.category);
+        return true;
+    }
+
+    private static void increment(TreeMap<String, Term> terms, TreeSet<String> changed, String value) {
+        String key = normalize(value);
+        if (key != null) {
+            terms.computeIfAbsent(key, k -> new Term(value.trim())).count++;
+            changed.add(key);
+        }
+    }
+
+    private static void decrement(TreeMap<String, Term> terms, TreeSet<String> changed, String value) {
+        String key = normalize(value);
+        Term term = key == null ? null : terms.get(key);
+        if (term != null) {
+            if (--term.count == 0) {
+                terms.remove(key);
+            }
+            changed.add(key);
+        }
+    }
+
+    private void publish(boolean rebuild) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(
+                terms(current.names, names, changedNames, rebuild),
+                terms(current.categories, categories, changedCategories, rebuild));
+    }
+
+    private Terms terms(Terms current, TreeMap<String, Term> terms, TreeSet<String> changed, boolean rebuild) {
+        if (!rebuild && changed.size() <= deltaLimit) {
+            return current.withDelta(Delta.of(terms, changed));
+        }
+        changed.clear();
+        return Terms.of(terms, scanLimit, topWidth);
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Term {
+        private final String display;
+        private int count;
+
+        private Term(String display) {
+            this.display = display;
+        }
+    }
+
+    private record Entry(String name, String category) {
+    }
+
+    /**
+     * A term that may be suggested: its lowercased key, display form and product count.
+     */
+    private record Candidate(String key, String display, int count) {
+        // Best suggestion first
+        private static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::count).reversed()
+                .thenComparing(Candidate::key);
+    }
+
+    /**
+     * Current counts of the terms changed since the term arrays were built, sorted by key;
+     * a count of 0 means the term is no longer used.
+     */
+    private record Delta(String[] keys, String[] displays, int[] counts) {
+        private static final Delta EMPTY = new Delta(new String[0], new String[0], new int[0]);
+
+        private static Delta of(TreeMap<String, Term> terms, TreeSet<String> changed) {
+            String[] keys = changed.toArray(String[]::new);
+            String[] displays = new String[keys.length];
+            int[] counts = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Term term = terms.get(keys[i]);
+                displays[i] = term == null ? null : term.display;
+                counts[i] = term == null ? 0 : term.count;
+            }
+            return new Delta(keys, displays, counts);
+        }
+
+        private boolean contains(String key) {
+            return Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        private void collect(String prefix, List<Candidate> into) {
+            for (int i = lowerBound(keys, prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                if (counts[i] > 0) {
+                    into.add(new Candidate(keys[i], displays[i], counts[i]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Parallel arrays of lowercased terms, in sorted order, with their display forms and counts,
+     * the precomputed top lists of prefixes matching more than {@code scanLimit} of them, and the
+     * delta of terms changed since.
+     */
+    private record Terms(String[] keys, String[] displays, int[] counts,
+                         Map<String, int[]> tops, int scanLimit, Delta delta) {
+        private static final Terms EMPTY =
+                new Terms(new String[0], new String[0], new int[0], Map.of(), 0, Delta.EMPTY);
+
+        private static Terms of(TreeMap<String, Term> terms, int scanLimit, int topWidth) {
+            Terms built = new Terms(
+                    terms.keySet().toArray(String[]::new),
+                    terms.values().stream().map(term -> term.display).toArray(String[]::new),
+                    terms.values().stream().mapToInt(term -> term.count).toArray(),
+                    new HashMap<>(), scanLimit, Delta.EMPTY);
+            if (built.keys.length > scanLimit) {
+                built.buildTops(0, built.keys.length, 0, topWidth);
+            }
+            return built;
+        }
+
+        private Terms withDelta(Delta changed) {
+            return new Terms(keys, displays, counts, tops, scanLimit, changed);
+        }
+
+        /**
+         * The most used terms starting with a prefix. Terms in the delta are ranked by their
+         * current count instead of the one in the arrays.
+         */
+        private List<String> top(String prefix, int limit) {
+            int from = lowerBound(keys, prefix);
+            int to = prefixEnd(prefix, from);
+            int[] top = to - from <= scanLimit ? null : tops.get(prefix);
+            List<Candidate> candidates = new ArrayList<>();
+            if (top != null) {
+                // Holds the best terms of the range; after dropping changed ones, still the best unchanged ones
+                for (int slot : top) {
+                    addUnchanged(slot, candidates);
+                }
+            }
+            if (top == null || candidates.size() < limit && top.length < to - from) {
+                // Small range, or more of the top list changed than it has spare entries: walk the range
+                candidates.clear();
+                for (int slot : best(from, to, limit + delta.keys.length)) {
+                    addUnchanged(slot, candidates);
+                }
+            }
+            delta.collect(prefix, candidates);
+            candidates.sort(Candidate.RANKING);
+            return candidates.stream().limit(limit).map(Candidate::display).toList();
+        }
+
+        private void addUnchanged(int slot, List<Candidate> into) {
+            if (!delta.contains(keys[slot])) {
+                into.add(new Candidate(keys[slot], displays[slot], counts[slot]));
+            }
+        }
+
+        /**
+         * Compute the top list of every prefix, from this trie node down, that matches more than
+         * {@code scanLimit} terms. The node covers the terms in {@code [from, to)}, which share
+         * their first {@code depth} characters; its children split them on the next character.
+         *
+         * @return the best slots of the node, best first
+         */
+        private int[] buildTops(int from, int to, int depth, int width) {
+            if (to - from <= scanLimit) {
+                return best(from, to, width);
+            }
+            long[] merged = new long[width];
+            int size = 0;
+            int i = from;
+            if (keys[i].length() == depth) {
+                merged[size++] = rank(i++);
+            }
+            while (i < to) {
+                char next = keys[i].charAt(depth);
+                int end = i + 1;
+                while (end < to && keys[end].charAt(depth) == next) {
+                    end++;
+                }
+                for (int slot : buildTops(i, end, depth + 1, width)) {
+                    if (size == merged.length) {
+                        merged = Arrays.copyOf(merged, size * 2);
+                    }
+                    merged[size++] = rank(slot);
+                }
+                i = end;
+            }
+            Arrays.sort(merged, 0, size);
+            int[] top = slots(merged, Math.min(size, width));
+            if (depth > 0) {
+                tops.put(keys[from].substring(0, depth), top);
+            }
+            return top;
+        }
+
+        /**
+         * The best slots in a range, best first. A range of at most {@code scanLimit} terms is
+         * sorted by rank; a larger one is walked once through a max-heap of at most {@code width}
+         * ranks holding the best so far, worst on top.
+         */
+        private int[] best(int from, int to, int width) {
+            if (to - from <= scanLimit) {
+                long[] ranks = new long[to - from];
+                for (int i = from; i < to; i++) {
+                    ranks[i - from] = rank(i);
+                }
+                Arrays.sort(ranks);
+                return slots(ranks, Math.min(ranks.length, width));
+            }
+            PriorityQueue<Long> best = new PriorityQueue<>(width + 1, Comparator.reverseOrder());
+            for (int i = from; i < to; i++) {
+                long rank = rank(i);
+                if (best.size() < width) {
+                    best.add(rank);
+                } else if (rank < best.peek()) {
+                    best.poll();
+                    best.add(rank);
+                }
+            }
+            long[] ranks = best.stream().mapToLong(Long::longValue).sorted().toArray();
+            return slots(ranks, ranks.length);
+        }
+
+        // Orders slots from the best suggestion to the worst: higher count first, then the lower,
+        // alphabetically earlier slot
+        private long rank(int slot) {
+            return (long) (Integer.MAX_VALUE - counts[slot]) << 32 | slot;
+        }
+
+        private static int[] slots(long[] ranks, int length) {
+            int[] slots = new int[length];
+            for (int i = 0; i < length; i++) {
+                slots[i] = (int) ranks[i];
+            }
+            return slots;
+        }
+
+        // The first slot at or after from whose term does not start with the prefix
+        private int prefixEnd(String prefix, int from) {
+            int low = from;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // The first position whose key is not less than the given one
+    private static int lowerBound(String[] keys, String key) {
+        int position = Arrays.binarySearch(keys, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private record Snapshot(Terms names, Terms categories) {
+        private static final Snapshot EMPTY = new Snapshot(Terms.EMPTY, Terms.EMPTY);
+    }
+}
@@ -3,6 +3,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.gkats.backend.config.UserDetailsCache;
 import com.gkats.backend.model.Role;
 import com.gkats.backend.model.User;
 import com.gkats.backend.repository.UserRepository;
@@ -17,11 +18,14 @@ public class AdminUserInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     @Autowired
-    public AdminUserInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AdminUserInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -42,6 +46,7 @@ public class AdminUserInitializer implements CommandLineRunner {
                     .role(Role.ADMIN)  // Directly assign the ADMIN role from the enum
                     .build();
             userRepository.save(adminUser);
+            userDetailsCache.evict(adminUser.getEmail());
             System.out.println("Admin user not found.");
         }
 
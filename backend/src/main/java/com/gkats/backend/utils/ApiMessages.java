@@ -6,7 +6,13 @@ package com.gkats.backend.utils;
 public final class ApiMessages {
     public static final String SUCCESS = "Success";
     public static final String ITEM_NOT_FOUND = "Item not found";
+    public static final String UNAUTHORIZED = "Invalid or expired token";
+    public static final String INVALID_CREDENTIALS = "Invalid email or password";
+    public static final String TOO_MANY_REQUESTS = "Too many attempts, try again later";
+    public static final String BAD_REQUEST = "Invalid request";
+    public static final String PRECONDITION_FAILED = "Item was modified by another request";
     public static final String INTERNAL_ERROR = "An unexpected error occurred";
+    public static final String SERVICE_UNAVAILABLE = "Service temporarily unavailable";
 
     private ApiMessages() {
         // Prevent instantiation
@@ -0,0 +1,20 @@
+package com.gkats.backend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The type Auth tokens.
+ * A short-lived access token for the Authorization header and the refresh token that renews it.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthTokens {
+    private String accessToken;
+    private String refreshToken;
+    private long expiresIn;
+}
@@ -0,0 +1,20 @@
+package com.gkats.backend.utils;
+
+import com.gkats.backend.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The type Bulk product update.
+ * The same partial change applied to several products; null fields are left untouched.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkProductUpdate {
+    private List<Long> ids;
+    private Product changes;
+}
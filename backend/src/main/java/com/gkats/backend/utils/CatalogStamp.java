@@ -0,0 +1,22 @@
+package com.gkats.backend.utils;
+
+import java.time.Instant;
+
+/**
+ * The type Catalog stamp.
+ * Aggregates of the whole products table that change with any insert, update or delete,
+ * whichever instance made it: the validator behind the catalog ETag.
+ *
+ * @param rows         the number of products
+ * @param lastModified the newest modification time, or null for an empty table
+ * @param versions     the sum of the product versions
+ */
+public record CatalogStamp(Long rows, Instant lastModified, Long versions) {
+
+    @Override
+    public String toString() {
+        long modified = lastModified == null ? 0
+                : lastModified.getEpochSecond() * 1_000_000 + lastModified.getNano() / 1_000;
+        return rows + "-" + modified + "-" + versions;
+    }
+}
@@ -0,0 +1,43 @@
+package com.gkats.backend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The type Cursor page.
+ * A slice of a keyset-paginated listing, ordered by id (price ranges by price, then id).
+ * Pass {@code nextCursor}, the id of the last item, back as the {@code cursor} parameter
+ * to fetch the following page; it is {@code null} once the last page has been reached.
+ *
+ * @param <T> the type parameter
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private int limit;
+
+    /**
+     * Build a page from rows fetched with {@code limit + 1}.
+     * The extra row only signals that another page exists and is dropped.
+     *
+     * @param <T>   the type parameter
+     * @param rows  the rows, in listing order
+     * @param limit the page size
+     * @param idOf  the id extractor
+     * @return the cursor page
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, limit);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)), limit);
+    }
+}
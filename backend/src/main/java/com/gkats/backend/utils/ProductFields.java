@@ -0,0 +1,98 @@
+package com.gkats.backend.utils;
+
+import com.gkats.backend.model.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Product fields.
+ * A sparse fieldset parsed from a {@code fields=name,price,...} request parameter.
+ * Only the listed product attributes are selected from the database and serialized;
+ * {@code id} is always included, first, because it is the keyset cursor. The names are kept in
+ * attribute order whatever order they were requested in, so equal fieldsets render and cache alike.
+ */
+public final class ProductFields {
+
+    private static final List<String> ATTRIBUTES = List.of(
+            "id", "name", "description", "price", "category", "imageurl",
+            "available", "sku", "dimensions", "color", "version", "lastModified");
+
+    private final List<String> names;
+
+    private ProductFields(List<String> names) {
+        this.names = List.copyOf(names);
+    }
+
+    /**
+     * Parse a fields parameter.
+     *
+     * @param fields the comma separated attribute names, or null
+     * @return the product fields, or null when no fields were requested
+     * @throws IllegalArgumentException if a name is not a product attribute
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || names.contains(name)) {
+                continue;
+            }
+            if (!ATTRIBUTES.contains(name)) {
+                throw new IllegalArgumentException("Unknown product field: " + name);
+            }
+            names.add(name);
+        }
+        names.sort(Comparator.comparingInt(ATTRIBUTES::indexOf));
+        return new ProductFields(names);
+    }
+
+    /**
+     * Get the attribute names, id first, in attribute order.
+     *
+     * @return the names
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Project a product already in memory onto the fieldset.
+     *
+     * @param product the product
+     * @return the selected attributes, in fieldset order
+     */
+    public Map<String, Object> project(Product product) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String name : names) {
+            row.put(name, switch (name) {
+                case "id" -> product.getId();
+                case "name" -> product.getName();
+                case "description" -> product.getDescription();
+                case "price" -> product.getPrice();
+                case "category" -> product.getCategory();
+                case "imageurl" -> product.getImageurl();
+                case "available" -> product.getAvailable();
+                case "sku" -> product.getSku();
+                case "dimensions" -> product.getDimensions();
+                case "color" -> product.getColor();
+                case "version" -> product.getVersion();
+                case "lastModified" -> product.getLastModified();
+                default -> throw new IllegalStateException("Unmapped product field: " + name);
+            });
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
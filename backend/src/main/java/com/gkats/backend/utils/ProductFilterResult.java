@@ -0,0 +1,23 @@
+package com.gkats.backend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Product filter result.
+ * A keyset page of filtered products with facet counts over the whole match.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilterResult {
+    private List<ProductSummary> items;
+    private Long nextCursor;
+    private long total;
+    private Map<String, Integer> categories;
+    private Map<String, Integer> colors;
+}
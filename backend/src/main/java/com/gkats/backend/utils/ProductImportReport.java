@@ -0,0 +1,36 @@
+package com.gkats.backend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Product import report.
+ * Outcome of a bulk import: row counts, the first per-row errors and the achieved throughput.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportReport {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private long elapsedMs;
+    private double rowsPerSecond;
+
+    /**
+     * The type Row error.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the request body
+        private long row;
+        private String message;
+    }
+}
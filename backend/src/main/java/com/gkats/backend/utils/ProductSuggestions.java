@@ -0,0 +1,19 @@
+package com.gkats.backend.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The type Product suggestions.
+ * Autocomplete matches for a typed prefix.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestions {
+    private List<String> names;
+    private List<String> categories;
+}
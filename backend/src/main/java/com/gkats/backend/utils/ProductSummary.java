@@ -0,0 +1,31 @@
+package com.gkats.backend.utils;
+
+import com.gkats.backend.model.Product;
+
+/**
+ * The type Product summary.
+ * The read-only view of a product used by list responses: what a product grid shows.
+ * Queried straight into this record from {@link com.gkats.backend.repository.ProductRepository},
+ * so list queries select six columns and leave nothing managed in the persistence context.
+ * The full product is only returned by {@code getProductById}.
+ *
+ * @param id        the id
+ * @param name      the name
+ * @param price     the price
+ * @param category  the category
+ * @param imageurl  the image url
+ * @param available the availability
+ */
+public record ProductSummary(Long id, String name, Double price, String category, String imageurl, Boolean available) {
+
+    /**
+     * Summarize a product.
+     *
+     * @param product the product
+     * @return the product summary
+     */
+    public static ProductSummary of(Product product) {
+        return new ProductSummary(product.getId(), product.getName(), product.getPrice(),
+                product.getCategory(), product.getImageurl(), product.getAvailable());
+    }
+}
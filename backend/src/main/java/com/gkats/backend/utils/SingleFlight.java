@@ -0,0 +1,110 @@
+package com.gkats.backend.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The type Single flight.
+ * Coalesces concurrent loads of the same key: the first caller runs the load on its own thread
+ * and every caller that arrives while it is in flight waits for that result instead of starting
+ * another one. A failed load is rethrown to all of them. Nothing is kept once a load completes;
+ * caching the result is up to the caller.
+ * Loads run and shared are counted as {@code products.loads}, tagged with the query and
+ * {@code outcome=load|shared}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter loads;
+    private final Counter shared;
+
+    /**
+     * Instantiates the Single flight.
+     *
+     * @param query         the query name, for the metrics
+     * @param timeout       how long a caller waits for a load started by another caller
+     * @param meterRegistry the meter registry
+     */
+    public SingleFlight(String query, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.loads = loads(meterRegistry, query, "load");
+        this.shared = loads(meterRegistry, query, "shared");
+    }
+
+    /**
+     * Load the value for a key, or wait for the load already in flight for it.
+     *
+     * @param key    the key
+     * @param loader loads the value when no load is in flight
+     * @return the value
+     * @throws QueryTimeoutException if the load in flight does not complete within the timeout
+     */
+    public V load(K key, Supplier<V> loader) {
+        // Plain map read first: waiting callers never contend on the bin lock
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing == null) {
+            CompletableFuture<V> started = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, started);
+            if (existing == null) {
+                return run(key, started, loader);
+            }
+        }
+        shared.increment();
+        return await(key, existing);
+    }
+
+    private V run(K key, CompletableFuture<V> started, Supplier<V> loader) {
+        loads.increment();
+        try {
+            V value = loader.get();
+            started.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            started.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, started);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> load) {
+        try {
+            return load.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Timed out waiting for the in-flight load of " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted waiting for the in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            // The loader's own exception, so callers see the same error the leader did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter loads(MeterRegistry meterRegistry, String query, String outcome) {
+        return Counter.builder("products.loads")
+                .description("Database loads run and shared between concurrent callers")
+                .tag("query", query)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+-- Schema as previously created by hibernate.ddl-auto=update.
+-- Existing databases are baselined below this version (spring.flyway.baseline-on-migrate) and still
+-- run it, so every statement is idempotent and brings an older ddl-auto schema up to date.
+
+create sequence if not exists products_seq start with 1 increment by 50;
+
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create table if not exists products (
+    available boolean,
+    price float(53),
+    id bigint not null,
+    last_modified timestamp(6) with time zone,
+    version bigint default 0 not null,
+    category varchar(255),
+    color varchar(255),
+    description varchar(255),
+    dimensions varchar(255),
+    imageurl varchar(255),
+    name varchar(255),
+    sku varchar(255),
+    primary key (id)
+);
+
+create table if not exists users (
+    id bigint not null,
+    email varchar(255),
+    firstname varchar(255),
+    lastname varchar(255),
+    password varchar(255),
+    role varchar(255) check (role in ('USER','ADMIN')),
+    primary key (id)
+);
+
+-- Databases created before product versioning have neither column; existing rows start at version 0
+alter table products add column if not exists version bigint default 0 not null;
+
+alter table products add column if not exists last_modified timestamp(6) with time zone;
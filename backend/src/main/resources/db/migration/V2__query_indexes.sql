@@ -0,0 +1,14 @@
+-- Indexes for the repository queries that used to scan the whole table.
+
+-- findByCategoryIgnoringCase...: lower(category) = lower(?) AND id > ? ORDER BY id (keyset page)
+create index if not exists products_lower_category_id_idx on products (lower(category), id);
+
+-- findByPriceBetween...: price BETWEEN ? AND ?
+create index if not exists products_price_idx on products (price);
+
+-- findByNameContainingIgnoreCase...: lower(name) LIKE '%' || lower(?) || '%'
+create extension if not exists pg_trgm;
+create index if not exists products_lower_name_trgm_idx on products using gin (lower(name) gin_trgm_ops);
+
+-- UserRepository.findByEmail, on every login and (in lookup auth mode) every authenticated request
+create unique index if not exists users_email_key on users (email);
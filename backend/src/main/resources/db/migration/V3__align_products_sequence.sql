@@ -0,0 +1,8 @@
+-- Product ids used to come from an IDENTITY column and now come from products_seq.
+-- On databases created before the switch the sequence starts below the existing ids,
+-- so move it past them. Hibernate hands out ids [value, value + 49] per nextval (pooled-lo).
+select setval('products_seq',
+              greatest((select coalesce(max(id), 0) from products) + 1,
+                       (select last_value from products_seq) + 50),
+              false)
+where (select coalesce(max(id), 0) from products) >= (select last_value from products_seq);
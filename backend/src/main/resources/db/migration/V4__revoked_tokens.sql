@@ -0,0 +1,12 @@
+-- Revoked token ids (jti), so revocations survive a restart and are shared by every instance.
+-- A row is only needed until the token would have expired anyway.
+create table if not exists revoked_tokens (
+    token_id   varchar(255)                not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (token_id)
+);
+
+-- TokenRevocationList sync: revocations made since the last poll, and the purge of expired rows
+create index if not exists revoked_tokens_revoked_at_idx on revoked_tokens (revoked_at);
+create index if not exists revoked_tokens_expires_at_idx on revoked_tokens (expires_at);
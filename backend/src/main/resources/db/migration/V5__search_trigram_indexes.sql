@@ -0,0 +1,6 @@
+-- Trigram indexes for the other columns of the database search fallback.
+
+-- findSearchCandidates: lower(name) LIKE ... OR lower(sku) LIKE ... OR lower(description) LIKE ...
+-- An OR is only answered from indexes (a BitmapOr) when every branch has one; name's is from V2
+create index if not exists products_lower_sku_trgm_idx on products using gin (lower(sku) gin_trgm_ops);
+create index if not exists products_lower_description_trgm_idx on products using gin (lower(description) gin_trgm_ops);
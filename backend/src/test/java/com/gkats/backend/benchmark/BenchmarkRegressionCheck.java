@@ -0,0 +1,79 @@
+package com.gkats.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a baseline result file. Every benchmark in the
+ * baseline is tracked; a tracked score worse than the baseline by more than the threshold
+ * is a regression (lower is better for time modes, higher for throughput).
+ * Run by the {@code benchmark} Maven profile after the benchmarks.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    /**
+     * Main.
+     *
+     * @param args results file, baseline file, threshold (e.g. 0.10), fail on regression (true/false)
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        File results = new File(args[0]);
+        File baseline = new File(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean failOnRegression = Boolean.parseBoolean(args[3]);
+        if (!baseline.isFile()) {
+            System.out.println("No benchmark baseline at " + baseline + ", copy " + results + " there to track these results");
+            return;
+        }
+        Map<String, Score> current = read(results);
+        int regressions = 0;
+        for (Map.Entry<String, Score> tracked : read(baseline).entrySet()) {
+            Score before = tracked.getValue();
+            Score after = current.get(tracked.getKey());
+            if (after == null) {
+                System.out.printf("MISSING     %s%n", tracked.getKey());
+                continue;
+            }
+            // Positive change means worse, whatever the mode
+            double change = before.higherIsBetter()
+                    ? (before.value - after.value) / before.value
+                    : (after.value - before.value) / before.value;
+            boolean regressed = change > threshold;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-11s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "REGRESSION" : "ok",
+                    tracked.getKey(), before.value, after.value, after.unit, change * 100);
+        }
+        if (regressions > 0 && failOnRegression) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = run.get("benchmark").asText() + (params.isEmpty() ? "" : params.toString());
+            JsonNode metric = run.get("primaryMetric");
+            scores.put(key, new Score(run.get("mode").asText(), metric.get("score").asDouble(), metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(String mode, double value, String unit) {
+        private boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.gkats.backend.benchmark;
+
+import com.gkats.backend.config.AuthMode;
+import com.gkats.backend.config.JwtAuthenticationFilter;
+import com.gkats.backend.config.JwtService;
+import com.gkats.backend.config.TokenRevocationList;
+import com.gkats.backend.config.UserDetailsCache;
+import com.gkats.backend.model.Role;
+import com.gkats.backend.model.User;
+import com.gkats.backend.repository.RevokedTokenRepository;
+import com.gkats.backend.repository.UserRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} end to end for one bearer-token request, per auth mode.
+ * The user lookup is an in-memory stub, so lookup mode shows the filter's own cost and
+ * not the database round trip it saves in the other modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"LOOKUP", "CACHED", "CLAIMS"})
+    public AuthMode authMode;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(1L).email("bench@example.com").password("hash").role(Role.USER).build();
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        UserDetailsService userDetailsService = username -> userRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        JwtService jwtService = JwtServiceBenchmark.jwtService(10_000);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService,
+                new UserDetailsCache(userRepository, 10_000, Duration.ofMinutes(5)),
+                new TokenRevocationList(Mockito.mock(RevokedTokenRepository.class),
+                        Duration.ofHours(1), 65_536, Duration.ofSeconds(30)));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+        authorization = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
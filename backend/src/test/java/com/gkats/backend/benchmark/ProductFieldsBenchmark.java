@@ -0,0 +1,123 @@
+package com.gkats.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.BackendApplication;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.services.ProductService;
+import com.gkats.backend.utils.ApiMessages;
+import com.gkats.backend.utils.ApiResponse;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductFields;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * One page of a large category (all products in one category) on in-memory H2
+ * ({@code loadtest} profile), queried and serialized three ways: full entities, the default
+ * summary projection and a {@code fields=} fieldset selected in SQL. Latency includes the
+ * query and Jackson; the payload size of each shape is printed once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductFieldsBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final String CATEGORY = "large";
+
+    @Param({"50", "1000"})
+    public int pageSize;
+
+    @Param({"id,name,price"})
+    public String fields;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectMapper objectMapper;
+    private ProductFields productFields;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .web(WebApplicationType.NONE)
+                .run("--spring.app.products.page.max-limit=" + PRODUCTS,
+                        "--spring.datasource.url=jdbc:h2:mem:fields-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE");
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        objectMapper = context.getBean(ObjectMapper.class);
+        productFields = ProductFields.parse(fields);
+        for (long from = 1; from <= PRODUCTS; from += 1_000) {
+            productService.addProducts(LongStream.range(from, Math.min(from + 1_000, PRODUCTS + 1L))
+                    .mapToObj(id -> ProductSerializationBenchmark.product(id).toBuilder()
+                            .id(null).version(null).lastModified(null).category(CATEGORY).build())
+                    .toList());
+        }
+        System.out.printf("%npayload bytes for %d products: full=%d summary=%d fields[%s]=%d%n",
+                pageSize, fullEntities().length, summary().length, fields, sparseFieldset().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] fullEntities() throws Exception {
+        // The list query as it was before projections: managed entities in a read-only transaction
+        List<Product> rows = readOnlyTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT p FROM Product p WHERE lower(p.category) = :category AND p.id > 0 ORDER BY p.id", Product.class)
+                .setParameter("category", CATEGORY)
+                .setMaxResults(pageSize + 1)
+                .getResultList());
+        return serialize(CursorPage.of(rows, pageSize, Product::getId));
+    }
+
+    @Benchmark
+    public byte[] summary() throws Exception {
+        // Straight from the repository: the service would answer repeats from the category page cache
+        return serialize(CursorPage.of(
+                productRepository.findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(CATEGORY, 0L, Limit.of(pageSize + 1)),
+                pageSize, summary -> summary.id()));
+    }
+
+    @Benchmark
+    public byte[] sparseFieldset() throws Exception {
+        return serialize(productService.getProductFieldsByCategory(CATEGORY, null, pageSize, productFields));
+    }
+
+    private byte[] serialize(CursorPage<?> page) throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(200, ApiMessages.SUCCESS, page));
+    }
+}
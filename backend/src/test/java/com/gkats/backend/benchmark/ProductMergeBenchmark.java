@@ -0,0 +1,59 @@
+package com.gkats.backend.benchmark;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of {@code ProductService.updateProduct}: copying the cataloged product
+ * and merging the non-null fields of a patch, for a one-field and an all-fields patch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMergeBenchmark {
+
+    private Product cataloged;
+    private Product pricePatch;
+    private Product fullPatch;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        cataloged = ProductSerializationBenchmark.product(42);
+        pricePatch = Product.builder().price(19.99).build();
+        fullPatch = ProductSerializationBenchmark.product(43).toBuilder().id(null).version(null).lastModified(null).build();
+        now = Instant.now();
+    }
+
+    @Benchmark
+    public Product mergeOneField() {
+        return merge(pricePatch);
+    }
+
+    @Benchmark
+    public Product mergeAllFields() {
+        return merge(fullPatch);
+    }
+
+    private Product merge(Product patch) {
+        Product saved = cataloged.toBuilder().version(cataloged.getVersion() + 1).lastModified(now).build();
+        ProductService.mergeNonNullFields(saved, patch);
+        return saved;
+    }
+}
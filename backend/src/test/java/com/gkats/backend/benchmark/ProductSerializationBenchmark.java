@@ -0,0 +1,71 @@
+package com.gkats.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.ApiMessages;
+import com.gkats.backend.utils.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Jackson serialization of an {@code ApiResponse<List<Product>>} body at catalog sizes,
+ * with the object mapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSerializationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Product>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Product> products = LongStream.rangeClosed(1, size).mapToObj(ProductSerializationBenchmark::product).toList();
+        response = ApiResponse.success(200, ApiMessages.SUCCESS, products);
+    }
+
+    static Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("A sturdy everyday product, number " + id + " in the catalog")
+                .price(10 + id % 990 + 0.99)
+                .category("category-" + id % 20)
+                .imageurl("https://cdn.example.com/products/" + id + ".jpg")
+                .available(id % 7 != 0)
+                .sku("SKU-" + id)
+                .dimensions("10x20x30")
+                .color("color-" + id % 12)
+                .version(1L)
+                .lastModified(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
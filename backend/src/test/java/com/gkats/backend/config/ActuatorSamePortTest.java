@@ -0,0 +1,51 @@
+package com.gkats.backend.config;
+
+import com.gkats.backend.model.Role;
+import com.gkats.backend.model.User;
+import com.gkats.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With actuator moved back onto the API port, health stays public but the Prometheus scrape
+ * needs a token like any other endpoint.
+ */
+@SpringBootTest(properties = {
+        "management.server.port=${server.port}",
+        "spring.datasource.url=jdbc:h2:mem:actuatorsameport;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("loadtest")
+class ActuatorSamePortTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void scrapeNeedsATokenOnTheApiPort() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+
+        User user = userRepository.save(User.builder().firstname("Metrics").lastname("Reader")
+                .email("metrics@example.com").password("unused").role(Role.USER).build());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(user)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,151 @@
+package com.gkats.backend.config;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The web tier in virtual-thread mode with a four-connection pool. Clients start more catalog
+ * exports than there are connections and hold off reading, so every export that got a
+ * connection blocks writing its response while holding it. Throughout, connections in use
+ * never exceed the pool and the excess requests wait at the admission gate rather than inside
+ * Hikari; once the clients read, every export completes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.url=jdbc:h2:mem:admission;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("loadtest")
+class ConnectionAdmissionGateTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int REQUESTS = 16;
+    // Enough wide rows that one export overflows the socket buffers of a client that is not reading
+    private static final int PRODUCTS = 20_000;
+    private static final String FILLER = "x".repeat(250);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void excessRequestsWaitAtTheGateAndConnectionsNeverExceedThePool() throws Exception {
+        productService.addProducts(LongStream.rangeClosed(1, PRODUCTS)
+                .mapToObj(i -> Product.builder().name("Product " + i).description(FILLER)
+                        .imageurl(FILLER).dimensions(FILLER).sku(FILLER).category("books").price((double) i).build())
+                .toList());
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        Gauge gateWaiting = meterRegistry.get("db.admission.waiting").gauge();
+
+        CountDownLatch read = new CountDownLatch(1);
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest export = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/export")).build();
+        List<CompletableFuture<HttpResponse<Long>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(export,
+                    info -> HttpResponse.BodySubscribers.fromSubscriber(new LineCounter(read), LineCounter::lines)));
+        }
+
+        int maxActive = 0;
+        int maxPoolWaiting = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (gateWaiting.value() < REQUESTS - POOL_SIZE && System.nanoTime() < deadline) {
+            maxActive = Math.max(maxActive, pool.getActiveConnections());
+            maxPoolWaiting = Math.max(maxPoolWaiting, pool.getThreadsAwaitingConnection());
+            Thread.sleep(1);
+        }
+        assertThat(gateWaiting.value()).isEqualTo(REQUESTS - POOL_SIZE);
+        assertThat(pool.getActiveConnections()).isEqualTo(POOL_SIZE);
+
+        read.countDown();
+        for (CompletableFuture<HttpResponse<Long>> response : responses) {
+            maxActive = Math.max(maxActive, pool.getActiveConnections());
+            maxPoolWaiting = Math.max(maxPoolWaiting, pool.getThreadsAwaitingConnection());
+            assertThat(response.get(30, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+            assertThat(response.get().body()).isEqualTo(PRODUCTS);
+        }
+        assertThat(maxActive).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(maxPoolWaiting).isZero();
+    }
+
+    /**
+     * Counts the lines of a response body, requesting nothing until the latch opens.
+     */
+    private static class LineCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final CountDownLatch read;
+        private long lines;
+
+        LineCounter(CountDownLatch read) {
+            this.read = read;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Thread.startVirtualThread(() -> {
+                try {
+                    read.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                subscription.request(Long.MAX_VALUE);
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                while (buffer.hasRemaining()) {
+                    if (buffer.get() == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        long lines() {
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.gkats.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads log into a small queue whose consumer is stalled: every event is either
+ * delivered or counted as dropped, none is lost uncounted.
+ */
+class DroppingAsyncAppenderTest {
+
+    private static final int THREADS = 8;
+    private static final int EVENTS_PER_THREAD = 2_000;
+
+    @Test
+    void everyEventIsDeliveredOrCountedAsDropped() throws Exception {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        Logger logger = context.getLogger("test");
+        CountDownLatch stall = new CountDownLatch(1);
+        AtomicLong delivered = new AtomicLong();
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                delivered.incrementAndGet();
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+        DroppingAsyncAppender appender = new DroppingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(16);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.setMaxFlushTime(5_000);
+        appender.addAppender(slow);
+        appender.start();
+        long droppedBefore = DroppingAsyncAppender.droppedCount();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(Thread.startVirtualThread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    appender.doAppend(new LoggingEvent("test", logger, Level.INFO, "event {}", null, new Object[]{i}));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        stall.countDown();
+        appender.stop();
+
+        long dropped = DroppingAsyncAppender.droppedCount() - droppedBefore;
+        assertThat(dropped).isPositive();
+        assertThat(delivered.get() + dropped).isEqualTo((long) THREADS * EVENTS_PER_THREAD);
+    }
+}
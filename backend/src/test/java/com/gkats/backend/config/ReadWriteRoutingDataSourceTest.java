@@ -0,0 +1,181 @@
+package com.gkats.backend.config;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import com.gkats.backend.utils.ProductSummary;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read/write routing against two in-memory H2 databases standing in for the primary and the
+ * replica ({@code replica} profile). Nothing replicates between them, so which one answered
+ * a read shows where it was routed. A write pins only its own user and request to the primary.
+ */
+@SpringBootTest
+@ActiveProfiles("replica")
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Hibernate only creates the schema on the primary; give the replica the same tables
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        schema.forEach(replica::execute);
+        primary.update("DELETE FROM products");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void writesGoToThePrimaryAndReadsToTheReplica() throws InterruptedException {
+        signIn("alice");
+        productService.addProduct(product("written"));
+        newRequest();
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM products", Long.class)).isZero();
+
+        // Inside the read-your-writes window the write is visible
+        assertThat(productService.getProducts(null, 10).getItems())
+                .extracting(ProductSummary::name)
+                .containsExactly("written");
+
+        Thread.sleep(500);
+        replica.update("INSERT INTO products (id, name, category, price, version) VALUES (1000, 'replicated', 'books', 1.0, 0)");
+
+        // Once the window has passed reads are served by the replica
+        assertThat(productService.getProducts(null, 10).getItems())
+                .extracting(ProductSummary::name)
+                .containsExactly("replicated");
+    }
+
+    @Test
+    void otherUsersKeepReadingTheReplica() {
+        replica.update("INSERT INTO products (id, name, category, price, version) VALUES (1000, 'replicated', 'books', 1.0, 0)");
+        signIn("alice");
+        productService.addProduct(product("written"));
+
+        newRequest();
+        signIn("bob");
+        assertThat(names()).containsExactly("replicated");
+        signIn("alice");
+        assertThat(names()).containsExactly("written");
+    }
+
+    @Test
+    void writesOutsideARequestByNoUserPinNothing() {
+        replica.update("INSERT INTO products (id, name, category, price, version) VALUES (1000, 'replicated', 'books', 1.0, 0)");
+
+        // As a scheduled job would: no user, no request
+        RequestContextHolder.resetRequestAttributes();
+        productService.addProduct(product("written"));
+
+        assertThat(names()).containsExactly("replicated");
+    }
+
+    @Test
+    void anAnonymousWritePinsTheRestOfItsRequest() {
+        replica.update("INSERT INTO products (id, name, category, price, version) VALUES (1000, 'replicated', 'books', 1.0, 0)");
+        newRequest();
+
+        productService.addProduct(product("written"));
+        assertThat(names()).containsExactly("written");
+
+        newRequest();
+        assertThat(names()).containsExactly("replicated");
+    }
+
+    @Test
+    void connectionsOfBothPoolsPassTheAdmissionGate() {
+        JdbcTemplate routed = new JdbcTemplate(dataSource);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            routed.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+            assertThat(permitsInUse("replicaDataSource")).isEqualTo(1);
+            assertThat(permitsInUse("primaryDataSource")).isZero();
+        });
+        transaction.setReadOnly(false);
+        transaction.executeWithoutResult(status -> {
+            routed.update("DELETE FROM products");
+            assertThat(permitsInUse("primaryDataSource")).isEqualTo(1);
+            assertThat(permitsInUse("replicaDataSource")).isZero();
+        });
+
+        // Closing the connection at the end of each transaction gave its permit back
+        assertThat(permitsInUse("replicaDataSource")).isZero();
+        assertThat(permitsInUse("primaryDataSource")).isZero();
+    }
+
+    private int permitsInUse(String dataSourceName) {
+        HikariDataSource pool = dataSourceName.equals("primaryDataSource") ? primaryDataSource : replicaDataSource;
+        double available = meterRegistry.get("db.admission.available").tag("datasource", dataSourceName).gauge().value();
+        return pool.getMaximumPoolSize() - (int) available;
+    }
+
+    private List<String> names() {
+        return productService.getProducts(null, 10).getItems().stream().map(ProductSummary::name).toList();
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static Product product(String name) {
+        return Product.builder().name(name).category("books").price(1.0).build();
+    }
+}
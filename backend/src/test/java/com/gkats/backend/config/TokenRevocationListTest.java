@@ -0,0 +1,82 @@
+package com.gkats.backend.config;
+
+import com.gkats.backend.model.RevokedToken;
+import com.gkats.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Revocations go through the revoked_tokens table, so a fresh list, as after a restart, and
+ * a second list, as on another instance, both see them.
+ */
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class TokenRevocationListTest {
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final Date expiresAt = new Date(System.currentTimeMillis() + Duration.ofHours(2).toMillis());
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void revocationsSurviveARestart() {
+        String tokenId = UUID.randomUUID().toString();
+        assertThat(revocationList.revoke(tokenId, expiresAt)).isTrue();
+
+        TokenRevocationList restarted = newInstance();
+        restarted.load();
+
+        assertThat(restarted.isRevoked(tokenId, expiresAt)).isTrue();
+        assertThat(restarted.revoke(tokenId, expiresAt)).isFalse();
+    }
+
+    @Test
+    void aTokenRevokedOnAnotherInstanceCannotBeRevokedAgain() {
+        TokenRevocationList other = newInstance();
+        other.load();
+        String tokenId = UUID.randomUUID().toString();
+
+        assertThat(other.revoke(tokenId, expiresAt)).isTrue();
+
+        // A second refresh with the same token, served here before the next sync, is still rejected
+        assertThat(revocationList.revoke(tokenId, expiresAt)).isFalse();
+    }
+
+    @Test
+    void syncPicksUpOtherInstancesRevocationsAndPurgesExpiredRows() {
+        TokenRevocationList other = newInstance();
+        other.load();
+        String tokenId = UUID.randomUUID().toString();
+        revokedTokenRepository.save(RevokedToken.builder().tokenId("expired")
+                .expiresAt(Instant.now().minusSeconds(1)).revokedAt(Instant.now().minusSeconds(60)).build());
+
+        revocationList.revoke(tokenId, expiresAt);
+        assertThat(other.isRevoked(tokenId, expiresAt)).isFalse();
+        other.sync();
+
+        assertThat(other.isRevoked(tokenId, expiresAt)).isTrue();
+        assertThat(revokedTokenRepository.existsById("expired")).isFalse();
+    }
+
+    private TokenRevocationList newInstance() {
+        return new TokenRevocationList(revokedTokenRepository, Duration.ofHours(1), 65_536, Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,54 @@
+package com.gkats.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behind a proxy every request arrives from the proxy's address. Through a real Tomcat, with the
+ * test client on loopback standing in for a trusted proxy, the per-IP login budget is kept per
+ * forwarded client rather than shared by everyone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.app.auth.throttle.per-ip=2",
+        "spring.datasource.url=jdbc:h2:mem:forwarded;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("loadtest")
+class ForwardedClientAddressTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final AtomicInteger users = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void loginBudgetIsPerForwardedClient() throws Exception {
+        assertThat(register("203.0.113.1")).isEqualTo(200);
+        assertThat(register("203.0.113.1")).isEqualTo(200);
+        assertThat(register("203.0.113.1")).isEqualTo(429);
+
+        assertThat(register("203.0.113.2")).isEqualTo(200);
+        assertThat(register("198.51.100.7, 203.0.113.2")).isEqualTo(200);
+    }
+
+    private int register(String forwardedFor) throws Exception {
+        String body = "{\"firstname\":\"Forwarded\",\"lastname\":\"Client\",\"email\":\"forwarded-"
+                + users.incrementAndGet() + "@example.com\",\"password\":\"password\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
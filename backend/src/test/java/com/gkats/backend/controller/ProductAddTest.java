@@ -0,0 +1,90 @@
+package com.gkats.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Adding a product always creates one: an id, version or last-modified time sent in the body
+ * must neither overwrite the product with that id nor fail the request.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:productadd;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductAddTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product existing;
+
+    @BeforeEach
+    void setUp() {
+        existing = productService.addProduct(Product.builder().name("Existing").category("books").price(10.0).build());
+    }
+
+    @Test
+    void idAndVersionInTheBodyAreIgnored() throws Exception {
+        JsonNode created = add("{\"id\":" + existing.getId() + ",\"version\":" + existing.getVersion()
+                + ",\"lastModified\":\"2020-01-01T00:00:00Z\",\"name\":\"Created\",\"category\":\"books\",\"price\":5.0}");
+
+        assertThat(created.path("id").asLong()).isNotEqualTo(existing.getId());
+        assertThat(created.path("version").asLong()).isZero();
+        assertThat(created.path("lastModified").asText()).doesNotStartWith("2020");
+        assertThat(productRepository.findById(existing.getId())).get()
+                .extracting(Product::getName, Product::getVersion)
+                .containsExactly("Existing", existing.getVersion());
+    }
+
+    @Test
+    void anIdWithoutAVersionStillCreatesAProduct() throws Exception {
+        JsonNode created = add("{\"id\":" + existing.getId() + ",\"name\":\"Created\",\"category\":\"books\",\"price\":5.0}");
+
+        assertThat(created.path("id").asLong()).isNotEqualTo(existing.getId());
+        assertThat(productRepository.findById(existing.getId())).get().extracting(Product::getName).isEqualTo("Existing");
+    }
+
+    @Test
+    void batchAddsIgnoreIdsToo() {
+        List<Product> saved = productService.addProducts(List.of(
+                Product.builder().id(existing.getId()).version(3L).name("Batch").category("books").price(1.0).build()));
+
+        assertThat(saved.get(0).getId()).isNotEqualTo(existing.getId());
+        assertThat(productRepository.findById(existing.getId())).get().extracting(Product::getName).isEqualTo("Existing");
+    }
+
+    private JsonNode add(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/products/addProduct")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).path("data");
+    }
+}
@@ -0,0 +1,131 @@
+package com.gkats.backend.controller;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductCatalog;
+import com.gkats.backend.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests: If-None-Match on the list and product endpoints, If-Match on updates.
+ * The list ETag is read from the products table, so writes this instance did not make, here
+ * straight in the database, also change it.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:conditional;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productService.addProduct(Product.builder()
+                .name("Conditional").category("books").price(10.0).build());
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWith304() throws Exception {
+        String listETag = etag("/api/products/getProducts");
+        mockMvc.perform(get("/api/products/getProducts").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, listETag));
+        mockMvc.perform(get("/api/products/getProductsByCategory/books").header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isNotModified());
+
+        String productETag = etag("/api/products/getProductById/" + product.getId());
+        mockMvc.perform(get("/api/products/getProductById/" + product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, productETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void writesThroughThisInstanceChangeTheListETagAtOnce() throws Exception {
+        String before = etag("/api/products/getProducts");
+
+        productService.updateProduct(product.getId(), Product.builder().price(12.0).build(), null);
+
+        mockMvc.perform(get("/api/products/getProducts").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+        assertThat(etag("/api/products/getProducts")).isNotEqualTo(before);
+    }
+
+    @Test
+    void writesMadeElsewhereChangeTheListETagOnTheNextRefresh() throws Exception {
+        String before = etag("/api/products/getProducts");
+
+        // As another instance would, bypassing this one's catalog
+        jdbcTemplate.update("UPDATE products SET price = 11.0, version = version + 1, last_modified = CURRENT_TIMESTAMP "
+                + "WHERE id = ?", product.getId());
+        productCatalog.refreshVersion();
+
+        mockMvc.perform(get("/api/products/getProducts").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+
+        String updated = etag("/api/products/getProducts");
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        productCatalog.refreshVersion();
+        assertThat(etag("/api/products/getProducts")).isNotEqualTo(updated).isNotEqualTo(before);
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWith412() throws Exception {
+        String current = etag("/api/products/getProductById/" + product.getId());
+        update(current, "{\"price\":11.0}").andExpect(status().isOk());
+
+        update(current, "{\"price\":12.0}")
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+        assertThat(productService.getProductById(product.getId()).getPrice()).isEqualTo(11.0);
+    }
+
+    @Test
+    void malformedIfMatchIsRejectedWith400() throws Exception {
+        update("\"not-a-version\"", "{\"price\":12.0}")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+        assertThat(productService.getProductById(product.getId()).getPrice()).isEqualTo(10.0);
+    }
+
+    private ResultActions update(String ifMatch, String body) throws Exception {
+        return mockMvc.perform(put("/api/products/updateProduct/" + product.getId())
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
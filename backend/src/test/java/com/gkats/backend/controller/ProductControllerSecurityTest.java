@@ -0,0 +1,91 @@
+package com.gkats.backend.controller;
+
+import com.gkats.backend.config.JwtService;
+import com.gkats.backend.model.Role;
+import com.gkats.backend.model.User;
+import com.gkats.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bulk write endpoints sit under the public {@code /api/products/**} paths but are
+ * restricted to admins by method security.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String adminToken;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() {
+        adminToken = token("security-admin@example.com", Role.ADMIN);
+        userToken = token("security-user@example.com", Role.USER);
+    }
+
+    @Test
+    void anonymousCallersCannotRunBulkWrites() throws Exception {
+        for (MockHttpServletRequestBuilder request : bulkWrites()) {
+            mockMvc.perform(request).andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void usersCannotRunBulkWrites() throws Exception {
+        for (MockHttpServletRequestBuilder request : bulkWrites()) {
+            mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void adminsCanRunBulkWrites() throws Exception {
+        for (MockHttpServletRequestBuilder request : bulkWrites()) {
+            mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private static List<MockHttpServletRequestBuilder> bulkWrites() {
+        return List.of(
+                patch("/api/products/updateProducts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[999999],\"changes\":{\"price\":1.0}}"),
+                delete("/api/products/deleteProducts").param("ids", "999999"),
+                post("/api/products/importProducts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"));
+    }
+
+    private String token(String email, Role role) {
+        User user = userRepository.findByEmail(email).orElseGet(() -> userRepository.save(User.builder()
+                .firstname("Security").lastname("Test").email(email).password("unused").role(role).build()));
+        return jwtService.generateToken(user);
+    }
+}
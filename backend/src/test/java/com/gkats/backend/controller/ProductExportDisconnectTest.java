@@ -0,0 +1,102 @@
+package com.gkats.backend.controller;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A client that drops the connection in the middle of a catalog export must not keep the
+ * export's database connection: the failed write ends the export, its cursor and transaction
+ * close, and the connection goes back to the pool. More exports are abandoned than the pool has
+ * connections, so a single leak would leave the last full export without one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "spring.datasource.url=jdbc:h2:mem:exportdisconnect;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("loadtest")
+class ProductExportDisconnectTest {
+
+    private static final int POOL_SIZE = 2;
+    // Enough wide rows that the export is still writing long after the client has gone
+    private static final int PRODUCTS = 20_000;
+    private static final String FILLER = "x".repeat(250);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void abandonedExportsReleaseTheirConnections() throws Exception {
+        productService.addProducts(LongStream.rangeClosed(1, PRODUCTS)
+                .mapToObj(i -> Product.builder().name("Product " + i).description(FILLER)
+                        .dimensions(FILLER).sku(FILLER).category("books").price((double) i).build())
+                .toList());
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+
+        for (int i = 0; i < POOL_SIZE * 2; i++) {
+            abandonExport(pool);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (pool.getActiveConnections() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(pool.getActiveConnections()).as("connections in use after abandoned export " + i).isZero();
+        }
+
+        HttpResponse<Stream<String>> complete = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/export")).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(complete.statusCode()).isEqualTo(200);
+        assertThat(complete.body().count()).isEqualTo(PRODUCTS);
+    }
+
+    /**
+     * Start an export, read until the first product arrives, then reset the connection while
+     * the export, blocked on the unread response, still holds its database connection.
+     */
+    private void abandonExport(HikariPoolMXBean pool) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            // Close with a reset rather than a graceful shutdown, as a crashed client would
+            socket.setSoLinger(true, 0);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /api/products/export HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            do {
+                line = in.readLine();
+            } while (line != null && !line.contains("\"name\""));
+            assertThat(line).as("first exported product").isNotNull();
+            assertThat(pool.getActiveConnections()).as("connections in use mid-export").isEqualTo(1);
+        }
+    }
+}
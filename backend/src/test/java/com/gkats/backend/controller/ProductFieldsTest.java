@@ -0,0 +1,90 @@
+package com.gkats.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sparse fieldsets on the list endpoints: an unknown field name is a client error, and a price
+ * range page returns only the requested fields, id first, paging like the summary listing.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:fields;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductFieldsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void unknownFieldIsRejectedWith400() throws Exception {
+        for (String path : List.of("/api/products/getProducts", "/api/products/getProductsByCategory/fields",
+                "/api/products/getProductsByPriceRange/1000/1100")) {
+            mockMvc.perform(get(path).param("fields", "name,password"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value(400))
+                    .andExpect(jsonPath("$.error").value("Unknown product field: password"));
+        }
+    }
+
+    @Test
+    void priceRangeReturnsOnlyTheRequestedFields() throws Exception {
+        productService.addProducts(List.of(
+                product("Fields Lamp", 1030.0),
+                product("Fields Desk", 1010.0),
+                product("Fields Chair", 1020.0),
+                product("Fields Shelf", 1010.0)));
+
+        JsonNode first = page("/api/products/getProductsByPriceRange/1000/1100?fields=price,name&limit=3");
+        assertThat(names(first)).containsExactly("Fields Desk", "Fields Shelf", "Fields Chair");
+        for (JsonNode item : first.path("items")) {
+            List<String> attributes = new ArrayList<>();
+            item.fieldNames().forEachRemaining(attributes::add);
+            assertThat(attributes).containsExactly("id", "name", "price");
+        }
+
+        JsonNode second = page("/api/products/getProductsByPriceRange/1000/1100?fields=price,name&limit=3&cursor="
+                + first.path("nextCursor").asLong());
+        assertThat(names(second)).containsExactly("Fields Lamp");
+        assertThat(second.path("nextCursor").isNull()).isTrue();
+    }
+
+    private JsonNode page(String uri) throws Exception {
+        String response = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).path("data");
+    }
+
+    private static List<String> names(JsonNode page) {
+        List<String> names = new ArrayList<>();
+        page.path("items").forEach(item -> names.add(item.path("name").asText()));
+        return names;
+    }
+
+    private static Product product(String name, double price) {
+        return Product.builder().name(name).description("Not requested").sku("FLD").category("fields").price(price).build();
+    }
+}
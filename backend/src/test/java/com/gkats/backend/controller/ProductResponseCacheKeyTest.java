@@ -0,0 +1,91 @@
+package com.gkats.backend.controller;
+
+import com.gkats.backend.services.ProductResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Requests whose page sizes clamp to the same limit, whose fieldsets differ only in order, or
+ * whose categories differ only in case get the same page, and share one cached response instead
+ * of each filling the cache with a copy.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductResponseCacheKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductResponseCache productResponseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        productResponseCache.invalidateAll();
+    }
+
+    @Test
+    void limitsAboveTheMaximumShareOneEntry() throws Exception {
+        double misses = gets("miss");
+        double hits = gets("hit");
+
+        for (String limit : new String[]{"200", "1000", "2147483647"}) {
+            mockMvc.perform(get("/api/products/getProducts").param("limit", limit)).andExpect(status().isOk());
+            mockMvc.perform(get("/api/products/getProductsByCategory/books").param("limit", limit))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(gets("miss") - misses).isEqualTo(2);
+        assertThat(gets("hit") - hits).isEqualTo(4);
+    }
+
+    @Test
+    void missingAndNonPositiveLimitsShareTheDefaultEntry() throws Exception {
+        double misses = gets("miss");
+
+        mockMvc.perform(get("/api/products/getProducts")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/getProducts").param("limit", "0")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/getProducts").param("limit", "-5")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/getProducts").param("limit", "50")).andExpect(status().isOk());
+
+        assertThat(gets("miss") - misses).isEqualTo(1);
+    }
+
+    @Test
+    void fieldsInAnyOrderAndCategoriesInAnyCaseShareOneEntry() throws Exception {
+        double misses = gets("miss");
+
+        String first = mockMvc.perform(get("/api/products/getProducts").param("fields", "price,name"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/products/getProducts").param("fields", "name, price,id"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/products/getProductsByCategory/Books").param("fields", "category,name"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/getProductsByCategory/BOOKS").param("fields", "name,category"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/getProductsByCategory/books").param("fields", "name,category,name"))
+                .andExpect(status().isOk());
+
+        assertThat(gets("miss") - misses).isEqualTo(2);
+        assertThat(second).isEqualTo(first);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "products.responses").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,315 @@
+package com.gkats.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.model.Role;
+import com.gkats.backend.model.User;
+import com.gkats.backend.repository.UserRepository;
+import com.gkats.backend.services.ProductCatalog;
+import com.gkats.backend.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: boots the app on in-memory H2 ({@code loadtest} profile), seeds a
+ * catalog and users, then drives a mix of catalog reads, searches, logins and admin writes
+ * over HTTP at a fixed arrival rate. Latency runs from each request's scheduled start, so a
+ * server that falls behind shows up in the tail. The report lists p50/p99/p999 and throughput
+ * per endpoint and is also written to {@code target/loadtest-report.txt}; the server's Prometheus
+ * metrics at the end of the run go to {@code target/loadtest-metrics.prom}.
+ * Run with {@code mvn -Ploadtest test}; sizes, rate, duration, warm-up and mix are Maven properties.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class EndToEndLoadTest {
+
+    private static final String PASSWORD = "loadtest";
+    private static final String[] ADJECTIVES = {"classic", "compact", "deluxe", "eco", "rugged", "slim", "smart", "vintage"};
+    private static final String[] NOUNS = {"backpack", "blender", "chair", "headphones", "jacket", "kettle", "lamp", "sneakers"};
+
+    private final int products = Integer.getInteger("loadtest.products", 10_000);
+    private final int users = Integer.getInteger("loadtest.users", 1_000);
+    private final int rate = Integer.getInteger("loadtest.rate", 100);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+    private final String mix = System.getProperty("loadtest.mix", "read=55,search=20,login=10,write=15");
+
+    @LocalServerPort
+    private int port;
+    @LocalManagementPort
+    private int managementPort;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductCatalog productCatalog;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void mixedTraffic() throws Exception {
+        seed();
+        String adminToken = login("admin@example.com", "admin");
+        // Warm-up traffic lets the JIT and caches settle; it is driven the same way but not reported
+        drive(endpoints(adminToken), warmupSeconds);
+        List<Endpoint> endpoints = endpoints(adminToken);
+        double elapsedSeconds = drive(endpoints, durationSeconds);
+
+        String report = report(endpoints, elapsedSeconds);
+        System.out.println(report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "loadtest-report.txt"), report);
+        // Server-side view of the same run: endpoint, repository, pool and auth metrics
+        HttpResponse<String> metrics = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(metrics.statusCode()).as("prometheus scrape").isEqualTo(200);
+        Files.writeString(Path.of("target", "loadtest-metrics.prom"), metrics.body());
+
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.weight > 0) {
+                assertThat(endpoint.latencies).as(endpoint.name + " requests").isNotEmpty();
+            }
+        }
+        // Logins may be shed with 503 under overload; catalog reads must not fail
+        assertThat(endpoints.get(0).errors.get()).as("read errors").isZero();
+        assertThat(endpoints.get(1).errors.get()).as("search errors").isZero();
+    }
+
+    private double drive(List<Endpoint> endpoints, int seconds) throws Exception {
+        int[] weights = weights(endpoints);
+        int requests = rate * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Endpoint endpoint = pick(endpoints, weights);
+            inFlight.add(client.sendAsync(endpoint.request(), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        endpoint.record(System.nanoTime() - scheduled,
+                                error == null && response.statusCode() / 100 == 2);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void seed() throws InterruptedException {
+        while (!productCatalog.isReady()) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        for (long from = 1; from <= products; from += 1_000) {
+            productService.addProducts(LongStream.range(from, Math.min(from + 1_000, products + 1L))
+                    .mapToObj(EndToEndLoadTest::product)
+                    .toList());
+        }
+        // One hash shared by all seeded users keeps seeding fast; logins still pay full BCrypt cost
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> seededUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            seededUsers.add(User.builder().firstname("Load").lastname("User " + i)
+                    .email(userEmail(i)).password(passwordHash).role(Role.USER).build());
+        }
+        userRepository.saveAll(seededUsers);
+    }
+
+    private List<Endpoint> endpoints(String adminToken) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        endpoints.add(new Endpoint("read", () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String path = random.nextBoolean()
+                    ? "/api/products/getProductById/" + randomProductId()
+                    : "/api/products/getProducts?limit=50&cursor=" + random.nextInt(Math.max(1, products - 50));
+            return get(path);
+        }));
+        endpoints.add(new Endpoint("search", () -> get("/api/products/search?limit=20&name="
+                + NOUNS[ThreadLocalRandom.current().nextInt(NOUNS.length)])));
+        endpoints.add(new Endpoint("login", () -> post("/api/auth/login", null,
+                "{\"email\":\"" + userEmail(ThreadLocalRandom.current().nextInt(users)) + "\",\"password\":\"" + PASSWORD + "\"}")));
+        endpoints.add(new Endpoint("write", () -> HttpRequest.newBuilder(uri("/api/products/updateProduct/" + randomProductId()))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + adminToken)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"price\":" + (1 + ThreadLocalRandom.current().nextInt(999)) + ".99}"))
+                .build()));
+        return endpoints;
+    }
+
+    private int[] weights(List<Endpoint> endpoints) {
+        Map<String, Integer> configured = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            configured.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        int[] cumulative = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint endpoint = endpoints.get(i);
+            endpoint.weight = configured.getOrDefault(endpoint.name, 0);
+            total += endpoint.weight;
+            cumulative[i] = total;
+        }
+        assertThat(total).as("loadtest.mix weights").isPositive();
+        return cumulative;
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int[] cumulative) {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (ticket < cumulative[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    private String login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post("/api/auth/login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("admin login").isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("data").path("accessToken").asText();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private long randomProductId() {
+        return 1 + ThreadLocalRandom.current().nextInt(products);
+    }
+
+    private static String userEmail(int i) {
+        return "loaduser" + i + "@example.com";
+    }
+
+    private static Product product(long n) {
+        String adjective = ADJECTIVES[(int) (n % ADJECTIVES.length)];
+        String noun = NOUNS[(int) (n / ADJECTIVES.length % NOUNS.length)];
+        return Product.builder()
+                .name(adjective + " " + noun + " " + n)
+                .description("A " + adjective + " " + noun + " for everyday use")
+                .price(5 + n % 995 + 0.99)
+                .category(noun)
+                .imageurl("https://cdn.example.com/products/" + n + ".jpg")
+                .available(n % 9 != 0)
+                .sku("LT-" + n)
+                .dimensions("10x20x30")
+                .color(adjective)
+                .build();
+    }
+
+    private String report(List<Endpoint> endpoints, double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(String.format(
+                "Load test: %d products, %d users, %d req/s offered for %d s after %d s warm-up (%s)%n%-8s %9s %7s %10s %10s %10s %10s %10s%n",
+                products, users, rate, durationSeconds, warmupSeconds, mix,
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Endpoint endpoint : endpoints) {
+            long[] sorted = endpoint.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                continue;
+            }
+            report.append(String.format("%-8s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    endpoint.name, sorted.length, endpoint.errors.get(), sorted.length / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1] / 1e6));
+        }
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1)] / 1e6;
+    }
+
+    /**
+     * One kind of request in the mix, with the latencies and failures it recorded.
+     */
+    private static final class Endpoint {
+        private final String name;
+        private final RequestFactory requests;
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private int weight;
+
+        private Endpoint(String name, RequestFactory requests) {
+            this.name = name;
+            this.requests = requests;
+        }
+
+        private HttpRequest request() {
+            return requests.create();
+        }
+
+        private void record(long latencyNanos, boolean success) {
+            latencies.add(latencyNanos);
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+}
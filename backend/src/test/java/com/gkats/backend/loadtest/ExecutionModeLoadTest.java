@@ -0,0 +1,183 @@
+package com.gkats.backend.loadtest;
+
+import com.gkats.backend.BackendApplication;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductCatalog;
+import com.gkats.backend.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and tail latency of the two request execution modes under the same open-loop load.
+ * The app is booted twice on in-memory H2 ({@code loadtest} profile), once per value of
+ * {@code spring.threads.virtual.enabled}, each time with the connection admission gate in front
+ * of a {@code loadtest.executionMode.connections}-connection Hikari pool. Every request is a
+ * {@code fields=} page selected in SQL with the response cache sized to zero, so each one checks
+ * out a pooled connection. Latency runs from the scheduled arrival, so time queued for a request
+ * thread or a connection counts. The report is also written to {@code target/execution-mode-report.txt}.
+ * Run with {@code mvn -Ploadtest test}; products, rate, duration and warm-up are the load test's
+ * Maven properties.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ExecutionModeLoadTest {
+
+    private final int products = Integer.getInteger("loadtest.products", 10_000);
+    private final int rate = Integer.getInteger("loadtest.rate", 100);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup", 10);
+    private final int connections = Integer.getInteger("loadtest.executionMode.connections", 10);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void platformAndVirtualThreadsBehindTheGatedPool() throws Exception {
+        StringBuilder report = new StringBuilder(String.format(
+                "Execution modes: %d products, %d req/s offered for %d s after %d s warm-up, %d connections%n"
+                        + "%-8s %9s %7s %10s %10s %10s %10s %10s%n",
+                products, rate, durationSeconds, warmupSeconds, connections,
+                "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        List<Run> runs = List.of(run("platform", false), run("virtual", true));
+        for (Run run : runs) {
+            report.append(run.line());
+        }
+        System.out.println(report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "execution-mode-report.txt"), report);
+
+        for (Run run : runs) {
+            assertThat(run.latencies).as(run.mode + " requests").isNotEmpty();
+        }
+    }
+
+    private Run run(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .properties(
+                        "server.port=0",
+                        "management.server.port=-1",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.app.db.admission.enabled=true",
+                        "spring.datasource.hikari.maximum-pool-size=" + connections,
+                        "spring.app.cache.responses.max-size=0",
+                        "spring.datasource.url=jdbc:h2:mem:executionmode-" + mode
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .run()) {
+            assertThat(ClassUtils.getUserClass(context.getBean(DataSource.class))).as("gated pool")
+                    .isEqualTo(HikariDataSource.class);
+            seed(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            drive(new Run(mode), port, warmupSeconds);
+            Run run = new Run(mode);
+            run.elapsedSeconds = drive(run, port, durationSeconds);
+            return run;
+        }
+    }
+
+    private double drive(Run run, int port, int seconds) throws Exception {
+        int requests = rate * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                    + "/api/products/getProducts?limit=50&fields=id,name,price,category&cursor="
+                    + ThreadLocalRandom.current().nextInt(Math.max(1, products - 50)))).GET().build();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        run.record(System.nanoTime() - scheduled, error == null && response.statusCode() == 200);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private void seed(ConfigurableApplicationContext context) throws InterruptedException {
+        ProductCatalog productCatalog = context.getBean(ProductCatalog.class);
+        while (!productCatalog.isReady()) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        ProductService productService = context.getBean(ProductService.class);
+        for (long from = 1; from <= products; from += 1_000) {
+            productService.addProducts(LongStream.range(from, Math.min(from + 1_000, products + 1L))
+                    .mapToObj(n -> Product.builder()
+                            .name("product " + n)
+                            .description("Product " + n + " for everyday use")
+                            .price(5 + n % 995 + 0.99)
+                            .category("category" + n % 20)
+                            .sku("EM-" + n)
+                            .available(true)
+                            .build())
+                    .toList());
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1)] / 1e6;
+    }
+
+    /**
+     * The latencies and failures recorded for one execution mode.
+     */
+    private static final class Run {
+        private final String mode;
+        private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private double elapsedSeconds;
+
+        private Run(String mode) {
+            this.mode = mode;
+        }
+
+        private void record(long latencyNanos, boolean success) {
+            latencies.add(latencyNanos);
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private String line() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return String.format("%-8s %9d%n", mode, 0);
+            }
+            return String.format("%-8s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    mode, sorted.length, errors.get(), sorted.length / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.gkats.backend.loadtest;
+
+import com.gkats.backend.config.PasswordHashingExecutor;
+import com.gkats.backend.config.TimedPasswordEncoder;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductPriceIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalog read latency during a login storm, with BCrypt on the request threads (as before)
+ * and on the bounded hashing pool. Request threads are modelled by a fixed pool the size of
+ * a small Tomcat; a read's latency includes waiting for a free request thread.
+ * Run with {@code mvn test -Dloadtest=true -Dtest=LoginStormLoadTest}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoginStormLoadTest {
+
+    private static final int REQUEST_THREADS = 16;
+    private static final int LOGINS = 100;
+    private static final int READS = 200;
+    private static final long READ_INTERVAL_MICROS = 5_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    private final ProductPriceIndex priceIndex = new ProductPriceIndex();
+    private String passwordHash;
+    private ExecutorService requestThreads;
+    private PasswordHashingExecutor hashing;
+
+    @BeforeEach
+    void setUp() {
+        passwordHash = encoder.encode("secret");
+        priceIndex.rebuild(LongStream.rangeClosed(1, 20_000)
+                .mapToObj(id -> Product.builder().id(id).price((double) (id % 1000)).build())
+                .toList());
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        hashing = new PasswordHashingExecutor(0, 64, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestThreads.shutdownNow();
+        hashing.shutdown();
+    }
+
+    @Test
+    void catalogReadsStayFlatWhenHashingIsOffloaded() throws Exception {
+        long baseline = p99(readsDuring(() -> { }));
+
+        AtomicInteger rejected = new AtomicInteger();
+        long offloaded = p99(readsDuring(() -> {
+            for (int i = 0; i < LOGINS; i++) {
+                requestThreads.execute(() -> {
+                    try {
+                        hashing.submit(() -> encoder.matches("wrong", passwordHash));
+                    } catch (RejectedExecutionException e) {
+                        rejected.incrementAndGet();
+                    }
+                });
+            }
+        }));
+
+        long onRequestThreads = p99(readsDuring(() -> {
+            for (int i = 0; i < LOGINS; i++) {
+                requestThreads.execute(() -> encoder.matches("wrong", passwordHash));
+            }
+        }));
+
+        System.out.printf("catalog read p99: baseline %.2f ms, storm offloaded %.2f ms (%d logins rejected), "
+                        + "storm on request threads %.2f ms, hash mean %.1f ms%n",
+                baseline / 1e6, offloaded / 1e6, rejected.get(), onRequestThreads / 1e6,
+                meterRegistry.get("auth.password.hash").tag("operation", "matches").timer()
+                        .mean(TimeUnit.MILLISECONDS));
+
+        assertThat(rejected.get()).isPositive();
+        assertThat(offloaded).isLessThan(onRequestThreads);
+        assertThat(offloaded).isLessThan(Math.max(baseline * 20, TimeUnit.MILLISECONDS.toNanos(50)));
+    }
+
+    private List<Long> readsDuring(Runnable storm) throws Exception {
+        storm.run();
+        List<CompletableFuture<Long>> reads = new ArrayList<>();
+        for (int i = 0; i < READS; i++) {
+            long submitted = System.nanoTime();
+            reads.add(CompletableFuture.supplyAsync(() -> {
+                priceIndex.idsInRange(100, 200, 0, 50);
+                return System.nanoTime() - submitted;
+            }, requestThreads));
+            TimeUnit.MICROSECONDS.sleep(READ_INTERVAL_MICROS);
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (CompletableFuture<Long> read : reads) {
+            latencies.add(read.get(2, TimeUnit.MINUTES));
+        }
+        drain();
+        return latencies;
+    }
+
+    // Let the storm finish so it does not bleed into the next scenario
+    private void drain() throws Exception {
+        CountDownLatch requestsDone = new CountDownLatch(REQUEST_THREADS);
+        CyclicBarrier allThreads = new CyclicBarrier(REQUEST_THREADS);
+        for (int i = 0; i < REQUEST_THREADS; i++) {
+            requestThreads.execute(() -> {
+                try {
+                    allThreads.await();
+                } catch (Exception e) {
+                    Thread.currentThread().interrupt();
+                }
+                requestsDone.countDown();
+            });
+        }
+        assertThat(requestsDone.await(5, TimeUnit.MINUTES)).isTrue();
+        while (meterRegistry.get("auth.hashing.queue.depth").gauge().value() > 0
+                || meterRegistry.get("auth.hashing.active").gauge().value() > 0) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.gkats.backend.repository;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database created by the original {@code ddl-auto=update} schema (IDENTITY product
+ * ids, no products_seq, no version or last_modified columns) and holding products: Flyway
+ * baselines it, runs every migration and Hibernate's schema validation has to pass before the
+ * context starts. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.app.jwt.secret=bG9hZHRlc3Qtb25seS1zaWduaW5nLWtleS1ub3QtZm9yLXByb2R1Y3Rpb24tdXNl",
+        "spring.app.jwt.expirationMS=900000",
+        "spring.jpa.show-sql=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class LegacySchemaMigrationTest {
+
+    private static final int LEGACY_PRODUCTS = 120;
+
+    // As generated by Hibernate for the entities before the migrations existed
+    private static final String[] LEGACY_SCHEMA = {
+            "create sequence users_seq start with 1 increment by 50",
+            "create table products (id bigint generated by default as identity, available boolean, "
+                    + "price float(53), category varchar(255), color varchar(255), description varchar(255), "
+                    + "dimensions varchar(255), imageurl varchar(255), name varchar(255), sku varchar(255), "
+                    + "primary key (id))",
+            "create table users (id bigint not null, email varchar(255), firstname varchar(255), "
+                    + "lastname varchar(255), password varchar(255), "
+                    + "role varchar(255) check (role in ('USER','ADMIN')), primary key (id))",
+            "insert into products (name, category, price) "
+                    + "select 'Legacy ' || i, 'books', i from generate_series(1, " + LEGACY_PRODUCTS + ") as i"
+    };
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void createLegacySchema() throws Exception {
+        // Runs before the Spring context, and so before Flyway, is started
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            for (String sql : LEGACY_SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @Test
+    void baselinesBelowV1AndRunsEveryMigration() {
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank", String.class))
+                .containsExactly("0", "1", "2", "3", "4", "5");
+    }
+
+    @Test
+    void existingProductsGetAVersionAndNewIdsComeAfterThem() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE version = 0", Long.class)).isEqualTo(LEGACY_PRODUCTS);
+
+        Product saved = productService.addProduct(
+                Product.builder().name("After upgrade").category("books").price(1.0).build());
+
+        assertThat(saved.getId()).isGreaterThan(LEGACY_PRODUCTS);
+        assertThat(saved.getVersion()).isZero();
+        Product legacy = productService.updateProduct(1L, Product.builder().price(2.0).build(), 0L);
+        assertThat(legacy.getVersion()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,124 @@
+package com.gkats.backend.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.services.ProductService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The list queries select only the summary columns, never the heavy ones (description,
+ * dimensions, sku, color), and the list endpoints return only the summary attributes.
+ * The SQL is captured by a Hibernate statement inspector.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.gkats.backend.repository.ProductSummaryProjectionTest$RecordingInspector"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class ProductSummaryProjectionTest {
+
+    private static final List<String> HEAVY_COLUMNS = List.of("description", "dimensions", "sku", "color");
+    private static final List<String> SUMMARY_ATTRIBUTES =
+            List.of("id", "name", "price", "category", "imageurl", "available");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productService.addProduct(Product.builder().name("Summary").description("A long description")
+                .dimensions("10x10x10").sku("SUM-1").color("Red").category("books").price(10.0).available(true).build());
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void listQueriesSelectOnlyTheSummaryColumns() {
+        assertThat(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10))).isNotEmpty();
+        assertThat(productRepository.findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc("BOOKS", 0L, Limit.of(10)))
+                .isNotEmpty();
+        assertThat(productRepository.findByPriceBetweenAfterOrderByPriceAscIdAsc(0.0, 100.0, 0L, Limit.of(10)))
+                .isNotEmpty();
+
+        List<String> selects = selects();
+        assertThat(selects).hasSize(3);
+        for (String sql : selects) {
+            assertThat(sql).contains("name", "price", "category", "imageurl", "available");
+            for (String heavy : HEAVY_COLUMNS) {
+                assertThat(sql).as(sql).doesNotContain(heavy);
+            }
+        }
+    }
+
+    @Test
+    void listEndpointsReturnOnlyTheSummaryAttributes() throws Exception {
+        for (String path : List.of("/api/products/getProducts", "/api/products/getProductsByCategory/books",
+                "/api/products/getProductsByPriceRange/0/100")) {
+            String response = mockMvc.perform(get(path)).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode items = objectMapper.readTree(response).path("data").path("items");
+            assertThat(items).as(path).isNotEmpty();
+            for (JsonNode item : items) {
+                List<String> attributes = new ArrayList<>();
+                item.fieldNames().forEachRemaining(attributes::add);
+                assertThat(attributes).as(path).containsExactlyInAnyOrderElementsOf(SUMMARY_ATTRIBUTES);
+            }
+        }
+    }
+
+    // Selects on products prepared by the test thread, not by the catalog's background refreshes
+    private static List<String> selects() {
+        Thread current = Thread.currentThread();
+        return RecordingInspector.STATEMENTS.stream()
+                .filter(statement -> statement.thread() == current)
+                .map(statement -> statement.sql().toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("select") && sql.contains("products"))
+                .toList();
+    }
+
+    /**
+     * Records every statement Hibernate prepares, with the thread that prepared it.
+     */
+    public static class RecordingInspector implements StatementInspector {
+
+        private static final Queue<Statement> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(new Statement(Thread.currentThread(), sql));
+            return sql;
+        }
+    }
+
+    private record Statement(Thread thread, String sql) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.gkats.backend.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository queries against PostgreSQL with the Flyway schema and a seeded catalog,
+ * and checks from the {@code auto_explain} output in the server log that each one is answered
+ * from its index rather than a sequential scan. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.app.jwt.secret=bG9hZHRlc3Qtb25seS1zaWduaW5nLWtleS1ub3QtZm9yLXByb2R1Y3Rpb24tdXNl",
+        "spring.app.jwt.expirationMS=900000",
+        "spring.jpa.show-sql=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryIndexUsageTest {
+
+    private static final int PRODUCTS = 50_000;
+    private static final int USERS = 10_000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0");
+
+    private static boolean seeded;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Test
+    void categoryPageUsesTheLowerCategoryIndex() throws InterruptedException {
+        assertThat(plan(() -> productRepository.findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(
+                "CATEGORY 42", 0L, Limit.of(51))))
+                .contains("products_lower_category_id_idx");
+    }
+
+    @Test
+    void priceRangeUsesThePriceIndex() throws InterruptedException {
+        assertThat(plan(() -> productRepository.findByPriceBetweenAfterOrderByPriceAscIdAsc(
+                100.0, 100.5, 0L, Limit.of(51))))
+                .contains("products_price_idx");
+    }
+
+    @Test
+    void searchFallbackUsesATrigramIndexPerColumn() throws InterruptedException {
+        assertThat(plan(() -> productRepository.findSearchCandidates("DUCT 4242", 0L, Limit.of(51))))
+                .contains("products_lower_name_trgm_idx", "products_lower_sku_trgm_idx",
+                        "products_lower_description_trgm_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void loginLookupUsesTheEmailIndex() throws InterruptedException {
+        assertThat(plan(() -> userRepository.findByEmail("user4242@example.com")))
+                .contains("users_email_key");
+    }
+
+    /**
+     * Runs the query and returns what auto_explain logged after it, up to the next marker.
+     */
+    private String plan(Runnable query) throws InterruptedException {
+        seed();
+        String marker = "explain-marker-" + UUID.randomUUID();
+        jdbcTemplate.queryForObject("SELECT '" + marker + "'", String.class);
+        query.run();
+        String end = marker + "-end";
+        jdbcTemplate.queryForObject("SELECT '" + end + "'", String.class);
+        // The server log reaches the container output asynchronously
+        for (int attempt = 0; attempt < 50; attempt++) {
+            String logs = postgres.getLogs();
+            int from = logs.lastIndexOf(marker + "'");
+            int to = logs.lastIndexOf(end);
+            if (from >= 0 && to > from) {
+                return logs.substring(from, to);
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("auto_explain output not found in the server log");
+    }
+
+    private void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO products (id, name, sku, description, category, price, available, version) "
+                + "SELECT i, 'Product ' || i, 'SKU-' || i, 'Description of product ' || i, 'Category ' || (i % 100), "
+                + "(i * 7 % 100000) / 100.0, true, 0 "
+                + "FROM generate_series(1, ?) AS i", PRODUCTS);
+        jdbcTemplate.update("INSERT INTO users (id, email, firstname, lastname, password, role) "
+                + "SELECT i, 'user' || i || '@example.com', 'First', 'Last', 'x', 'USER' "
+                + "FROM generate_series(1, ?) AS i", USERS);
+        jdbcTemplate.execute("ANALYZE products");
+        jdbcTemplate.execute("ANALYZE users");
+        seeded = true;
+    }
+}
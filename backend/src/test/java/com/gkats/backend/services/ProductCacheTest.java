@@ -0,0 +1,56 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private final ProductCache cache = new ProductCache(100, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void loadsFinishingBeforeAnyWriteAreCached() {
+        long generation = cache.generation();
+        Product product = Product.builder().id(1L).name("Current").build();
+
+        cache.putProduct(product, generation);
+        cache.putCategories(List.of("books"), generation);
+
+        assertThat(cache.getProduct(1L)).isSameAs(product);
+        assertThat(cache.getCategories()).containsExactly("books");
+    }
+
+    @Test
+    void loadsOverlappingAWriteAreNotCached() {
+        // A reader starts loading, then a write to another product commits and invalidates
+        long generation = cache.generation();
+        cache.invalidate(2L);
+
+        cache.putProduct(Product.builder().id(1L).name("Stale").build(), generation);
+        cache.putCategoryPage("Books", 0L, 50, CursorPage.<ProductSummary>of(List.of(), 50, ProductSummary::id),
+                generation);
+        cache.putCategories(List.of("books"), generation);
+
+        assertThat(cache.getProduct(1L)).isNull();
+        assertThat(cache.getCategoryPage("books", 0L, 50)).isNull();
+        assertThat(cache.getCategories()).isNull();
+    }
+
+    @Test
+    void batchInvalidationsAlsoStartANewGeneration() {
+        long generation = cache.generation();
+        cache.invalidateAll(List.of(1L, 2L));
+
+        cache.putProduct(Product.builder().id(1L).name("Stale").build(), generation);
+
+        assertThat(cache.getProduct(1L)).isNull();
+        assertThat(cache.generation()).isNotEqualTo(generation);
+    }
+}
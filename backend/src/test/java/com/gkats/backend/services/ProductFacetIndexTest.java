@@ -0,0 +1,97 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ProductFacetIndexTest {
+
+    private final ProductFacetIndex index = new ProductFacetIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild(List.of(
+                product(1, "Books", "Red", true),
+                product(2, "Books", "Blue", true),
+                product(3, "Books", "Red", false),
+                product(4, "Toys", "Red", true),
+                product(5, "Toys", "Green", true),
+                product(6, "Garden", null, true)));
+    }
+
+    @Test
+    void combinesCategoryColorAndAvailability() {
+        assertThat(index.filter("books", "RED", null, null, 0, 10).ids()).containsExactly(1L, 3L);
+        assertThat(index.filter("Books", "Red", true, null, 0, 10).ids()).containsExactly(1L);
+        assertThat(index.filter(null, "Red", false, null, 0, 10).ids()).containsExactly(3L);
+        assertThat(index.filter("Toys", "Blue", null, null, 0, 10).ids()).isEmpty();
+        assertThat(index.filter("Unknown", null, null, null, 0, 10).total()).isZero();
+
+        ProductFacetIndex.FacetMatch all = index.filter(null, null, null, null, 0, 10);
+        assertThat(all.total()).isEqualTo(6);
+        assertThat(all.categoryCounts()).containsExactly(entry("Books", 3), entry("Toys", 2), entry("Garden", 1));
+        assertThat(all.colorCounts()).containsExactly(entry("Red", 3), entry("Blue", 1), entry("Green", 1));
+    }
+
+    @Test
+    void eachFacetIsCountedWithoutItsOwnSelection() {
+        ProductFacetIndex.FacetMatch match = index.filter("Books", "Red", null, null, 0, 10);
+
+        assertThat(match.total()).isEqualTo(2);
+        // Red products in every category, and products of every color in Books
+        assertThat(match.categoryCounts()).containsExactly(entry("Books", 2), entry("Toys", 1));
+        assertThat(match.colorCounts()).containsExactly(entry("Red", 2), entry("Blue", 1));
+
+        // Filters other than the facet's own still apply to its counts
+        ProductFacetIndex.FacetMatch available = index.filter("Books", "Red", true, null, 0, 10);
+        assertThat(available.categoryCounts()).containsExactly(entry("Books", 1), entry("Toys", 1));
+        assertThat(available.colorCounts()).containsExactly(entry("Blue", 1), entry("Red", 1));
+    }
+
+    @Test
+    void reusedOrdinalsCarryOnlyTheNewProduct() {
+        index.removeAll(List.of(1L, 5L));
+        index.remove(6L);
+        // Added after the removals, so they take over the freed ordinals
+        index.upsert(product(7, "Garden", "Blue", false));
+        index.upsert(product(8, "Books", "Green", true));
+        index.upsert(product(9, "Toys", "Blue", true));
+
+        ProductFacetIndex.FacetMatch all = index.filter(null, null, null, null, 0, 10);
+        assertThat(all.ids()).containsExactly(2L, 3L, 4L, 7L, 8L, 9L);
+        assertThat(all.categoryCounts()).containsExactly(entry("Books", 3), entry("Toys", 2), entry("Garden", 1));
+        assertThat(all.colorCounts()).containsExactly(entry("Blue", 3), entry("Red", 2), entry("Green", 1));
+        assertThat(index.filter(null, "Red", true, null, 0, 10).ids()).containsExactly(4L);
+        assertThat(index.filter("Garden", null, true, null, 0, 10).ids()).isEmpty();
+
+        // An update moves the product between facet values in place
+        index.upsert(product(8, "Toys", "Red", false));
+        assertThat(index.filter("Books", null, null, null, 0, 10).ids()).containsExactly(2L, 3L);
+        assertThat(index.filter(null, "Red", false, null, 0, 10).ids()).containsExactly(3L, 8L);
+        assertThat(index.filter(null, null, null, null, 0, 10).colorCounts()).doesNotContainKey("Green");
+    }
+
+    @Test
+    void restrictsToIdsFromOtherIndexesAndPagesById() {
+        long[] fromPriceIndex = {6L, 4L, 2L, 1L, 42L};
+
+        ProductFacetIndex.FacetMatch match = index.filter(null, null, true, fromPriceIndex, 0, 2);
+        assertThat(match.ids()).containsExactly(1L, 2L);
+        assertThat(match.total()).isEqualTo(4);
+        assertThat(match.categoryCounts()).isEqualTo(Map.of("Books", 2, "Toys", 1, "Garden", 1));
+
+        assertThat(index.filter(null, null, true, fromPriceIndex, 2, 2).ids()).containsExactly(4L, 6L);
+        assertThat(index.filter("Toys", null, null, new long[0], 0, 10).total()).isZero();
+    }
+
+    private static Product product(long id, String category, String color, boolean available) {
+        return Product.builder().id(id).name("Product " + id).category(category).color(color)
+                .available(available).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.utils.ProductFilterResult;
+import com.gkats.backend.utils.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Filtering through the service: the price range and the name query each narrow the ids the
+ * facet index filters and counts, and both together only keep the ids they have in common.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:filter;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class ProductFilterTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        while (!productCatalog.isReady()) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        productService.deleteProducts(productRepository.findAll().stream().map(Product::getId).toList());
+        productService.addProducts(List.of(
+                product("Phone Case", "Accessories", "Black", 15.0),
+                product("Phone Charger", "Accessories", "White", 25.0),
+                product("Phone Stand", "Accessories", "Black", 45.0),
+                product("Desk Lamp", "Home", "Black", 20.0),
+                product("Phone Holder", "Car", "Black", 22.0),
+                product("Laptop Sleeve", "Accessories", "Grey", 30.0)));
+    }
+
+    @Test
+    void filtersFacetsWithinAPriceRange() {
+        ProductFilterResult result = productService.filterProducts(
+                null, "Black", null, 10.0, 30.0, null, null, 10);
+
+        assertThat(names(result)).containsExactly("Phone Case", "Desk Lamp", "Phone Holder");
+        assertThat(result.getCategories()).containsExactly(
+                entry("Accessories", 1), entry("Car", 1), entry("Home", 1));
+        // The color facet ignores the color selection but keeps the price range
+        assertThat(result.getColors()).containsExactly(
+                entry("Black", 3), entry("Grey", 1), entry("White", 1));
+    }
+
+    @Test
+    void intersectsThePriceRangeWithTheNameQuery() {
+        ProductFilterResult result = productService.filterProducts(
+                null, null, null, 20.0, 50.0, "phone", null, 10);
+
+        assertThat(names(result)).containsExactly("Phone Charger", "Phone Stand", "Phone Holder");
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getCategories()).containsExactly(entry("Accessories", 2), entry("Car", 1));
+
+        ProductFilterResult accessories = productService.filterProducts(
+                "accessories", "Black", null, 20.0, 50.0, "phone", null, 10);
+        assertThat(names(accessories)).containsExactly("Phone Stand");
+        assertThat(productService.filterProducts(null, null, null, 100.0, null, "phone", null, 10).getTotal())
+                .isZero();
+    }
+
+    @Test
+    void pagesThroughTheIntersectionByCursor() {
+        ProductFilterResult first = productService.filterProducts(
+                null, null, null, 10.0, null, "phone", null, 2);
+        assertThat(names(first)).containsExactly("Phone Case", "Phone Charger");
+        assertThat(first.getTotal()).isEqualTo(4);
+
+        ProductFilterResult second = productService.filterProducts(
+                null, null, null, 10.0, null, "phone", first.getNextCursor(), 2);
+        assertThat(names(second)).containsExactly("Phone Stand", "Phone Holder");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private static Product product(String name, String category, String color, double price) {
+        return Product.builder().name(name).category(category).color(color).price(price).available(true).build();
+    }
+
+    private static List<String> names(ProductFilterResult result) {
+        return result.getItems().stream().map(ProductSummary::name).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.gkats.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.utils.ProductImportReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ProductImportServiceTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final List<String> saved = new ArrayList<>();
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            batch.forEach(product -> saved.add(product.getName()));
+            return batch;
+        }).when(productService).addProducts(anyList());
+        importService = new ProductImportService(new ObjectMapper(), productService);
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 100);
+    }
+
+    @Test
+    void elementsThatAreNotObjectsAreReportedAndSkipped() throws Exception {
+        ProductImportReport report = importJsonArray(
+                "[{\"name\":\"A\"}, 5, \"text\", [1, {\"name\":\"nested\"}], null, {\"name\":\"B\"}, true, {\"name\":\"C\"}]");
+
+        assertThat(saved).containsExactly("A", "B", "C");
+        assertThat(report.getReceived()).isEqualTo(8);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(5);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getRow).containsExactly(2L, 3L, 4L, 5L, 7L);
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Expected a product object, found an array");
+    }
+
+    @Test
+    void malformedJsonStopsTheImportAndKeepsEarlierRows() throws Exception {
+        ProductImportReport report = importJsonArray("[{\"name\":\"A\"}, 7, {\"name\": ]");
+
+        assertThat(saved).containsExactly("A");
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("Malformed JSON, import stopped");
+    }
+
+    private ProductImportReport importJsonArray(String json) throws Exception {
+        return importService.importJsonArray(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
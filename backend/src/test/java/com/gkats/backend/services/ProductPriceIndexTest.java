@@ -0,0 +1,83 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceIndexTest {
+
+    private final ProductPriceIndex index = new ProductPriceIndex();
+
+    @BeforeEach
+    void setUp() {
+        // Prices cycle 10, 20, ..., 100 so every price holds ids spread across the whole range
+        index.rebuild(LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> Product.builder().id(id).price(price(id)).build())
+                .toList());
+    }
+
+    @Test
+    void pagesThroughARangeInPriceThenIdOrder() {
+        // Prices 30..50 hold ids ending in 2, 3 and 4
+        assertThat(index.idsInRange(30, 50, 0, 5)).containsExactly(2L, 12L, 22L, 32L, 42L);
+        assertThat(index.idsInRange(30, 50, 42, 5)).containsExactly(52L, 62L, 72L, 82L, 92L);
+        assertThat(index.idsInRange(30, 50, 92, 3)).containsExactly(3L, 13L, 23L);
+        assertThat(index.idsInRange(30, 50, 94, 5)).isEmpty();
+        assertThat(index.idsInRange(30, 50, 0, 0)).isEmpty();
+        assertThat(index.idsInRange(200, 300, 0, 5)).isEmpty();
+    }
+
+    @Test
+    void pageIsTheSliceAfterTheCursorProduct() {
+        for (long afterId = 0; afterId <= 100; afterId += 7) {
+            for (int limit = 1; limit <= 40; limit += 13) {
+                long cursor = afterId;
+                long[] expected = LongStream.rangeClosed(1, 100)
+                        .filter(id -> price(id) >= 20 && price(id) <= 70)
+                        .filter(id -> cursor == 0 || price(id) > price(cursor) || price(id) == price(cursor) && id > cursor)
+                        .boxed()
+                        .sorted(Comparator.comparingDouble(ProductPriceIndexTest::price).thenComparing(id -> id))
+                        .mapToLong(Long::longValue)
+                        .limit(limit)
+                        .toArray();
+                assertThat(index.idsInRange(20, 70, afterId, limit)).as("after " + afterId).containsExactly(expected);
+            }
+        }
+    }
+
+    @Test
+    void cursorResumesFromItsProductsCurrentPrice() {
+        index.upsert(Product.builder().id(12L).price(45.0).build());
+
+        assertThat(index.idsInRange(30, 50, 12, 3)).containsExactly(4L, 14L, 24L);
+        // A cursor no longer in the index ends the listing
+        index.remove(12L);
+        assertThat(index.idsInRange(30, 50, 12, 3)).isEmpty();
+    }
+
+    @Test
+    void allIdsInRangeReturnsTheWholeRange() {
+        assertThat(index.allIdsInRange(100, 100)).containsExactlyInAnyOrder(
+                9L, 19L, 29L, 39L, 49L, 59L, 69L, 79L, 89L, 99L);
+        assertThat(index.allIdsInRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)).hasSize(100);
+    }
+
+    @Test
+    void removeAllDropsABatchAndKeepsTheRest() {
+        index.removeAll(List.of(1L, 11L, 21L, 999L));
+
+        assertThat(index.idsInRange(20, 20, 0, 100))
+                .containsExactly(31L, 41L, 51L, 61L, 71L, 81L, 91L);
+        assertThat(index.idsInRange(0, 1_000, 0, 1_000)).hasSize(97);
+    }
+
+    private static double price(long id) {
+        return (double) (id % 10 + 1) * 10;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.utils.ProductSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search while the catalog is still loading goes to the database, and has to match what the
+ * search index would: every term equal to or starting a word of name, sku or description.
+ * The catalog is mocked so it never becomes ready.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:searchfallback;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("loadtest")
+class ProductSearchFallbackTest {
+
+    @MockBean
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.saveAll(List.of(
+                product("Phone Case", "PC-100", "Slim case"),
+                product("iPhone Stand", "ST-200", "Desk stand"),
+                product("Charger", "CH-300", "Fast charging for any phone"),
+                product("Headphones", "HP-400", "Over-ear"),
+                product("Cable 100% copper", "CB-500", "Braided")));
+    }
+
+    @Test
+    void matchesTermsAsWordPrefixesOfNameSkuAndDescription() {
+        assertThat(names(productService.searchProductsByName("phone", 10)))
+                .containsExactly("Phone Case", "Charger");
+        assertThat(names(productService.searchProductsByName("PH", 10)))
+                .containsExactly("Phone Case", "Charger");
+        assertThat(names(productService.searchProductsByName("st-200", 10))).containsExactly("iPhone Stand");
+        assertThat(names(productService.searchProductsByName("fast phone", 10))).containsExactly("Charger");
+        assertThat(names(productService.searchProductsByName("case charger", 10))).isEmpty();
+    }
+
+    @Test
+    void searchesTheWholeTableUpToTheLimit() {
+        assertThat(names(productService.searchProductsByName("c", 2))).containsExactly("Phone Case", "Charger");
+        assertThat(names(productService.searchProductsByName("100%", 10)))
+                .containsExactly("Phone Case", "Cable 100% copper");
+        assertThat(productService.searchProductsByName("%", 10)).isEmpty();
+    }
+
+    private static Product product(String name, String sku, String description) {
+        return Product.builder().name(name).sku(sku).description(description).category("misc").price(1.0).build();
+    }
+
+    private static List<String> names(List<ProductSummary> products) {
+        return products.stream().map(ProductSummary::name).toList();
+    }
+}
@@ -0,0 +1,168 @@
+package com.gkats.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gkats.backend.model.Product;
+import com.gkats.backend.repository.ProductRepository;
+import com.gkats.backend.utils.CursorPage;
+import com.gkats.backend.utils.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Request coalescing in {@link ProductService}: bursts of concurrent cache misses for one key
+ * against a mocked repository. The mocked query holds until every other caller of the burst is
+ * waiting on it (the {@code products.loads} shared count), so the burst fully overlaps one load.
+ */
+class ProductServiceSingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = productService(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesForOneIdRunOneQuery() throws Exception {
+        Product product = Product.builder().id(42L).name("hot").build();
+        when(productRepository.findById(42L)).thenAnswer(invocation -> {
+            awaitSharedLoads("byId", CALLERS - 1);
+            return Optional.of(product);
+        });
+
+        List<Future<Product>> results = burst(() -> productService.getProductById(42L));
+
+        for (Future<Product> result : results) {
+            assertThat(result.get()).isSameAs(product);
+        }
+        verify(productRepository, times(1)).findById(42L);
+    }
+
+    @Test
+    void concurrentMissesForOneCategoryPageRunOneQuery() throws Exception {
+        List<ProductSummary> rows = List.of(new ProductSummary(1L, "hot", 1.0, "books", null, true));
+        when(productRepository.findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(eq("books"), eq(0L), any(Limit.class)))
+                .thenAnswer(invocation -> {
+                    awaitSharedLoads("category", CALLERS - 1);
+                    return rows;
+                });
+
+        List<Future<CursorPage<ProductSummary>>> results =
+                burst(() -> productService.getProductsByCategory("books", null, null));
+
+        for (Future<CursorPage<ProductSummary>> result : results) {
+            assertThat(result.get().getItems()).isEqualTo(rows);
+        }
+        verify(productRepository, times(1))
+                .findByCategoryIgnoringCaseAndIdGreaterThanOrderByIdAsc(eq("books"), eq(0L), any(Limit.class));
+    }
+
+    @Test
+    void failedLoadIsRethrownToEveryWaitingCaller() throws Exception {
+        when(productRepository.findById(7L)).thenAnswer(invocation -> {
+            awaitSharedLoads("byId", CALLERS - 1);
+            return Optional.empty();
+        });
+
+        List<Future<Product>> results = burst(() -> productService.getProductById(7L));
+
+        for (Future<Product> result : results) {
+            assertThatThrownBy(result::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessage("Product not found for ID: 7");
+        }
+        verify(productRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void waitingCallerTimesOutWhileTheLoadIsStuck() throws Exception {
+        productService = productService(Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById(anyLong())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(Product.builder().id(1L).build());
+        });
+        Future<Product> leader = executor.submit(() -> productService.getProductById(1L));
+        while (meterRegistry.counter("products.loads", "query", "byId", "outcome", "load").count() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> productService.getProductById(1L)).isInstanceOf(QueryTimeoutException.class);
+
+        release.countDown();
+        assertThat(leader.get().getId()).isEqualTo(1L);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    private ProductService productService(Duration loadTimeout) {
+        ProductService service = new ProductService(productRepository, mock(EntityManager.class), new ObjectMapper(),
+                mock(ProductCache.class), mock(ProductResponseCache.class), mock(ProductCatalog.class),
+                mock(ProductSearchIndex.class), mock(ProductSuggestIndex.class), mock(ProductPriceIndex.class),
+                mock(ProductFacetIndex.class), meterRegistry, loadTimeout);
+        ReflectionTestUtils.setField(service, "defaultPageLimit", 50);
+        ReflectionTestUtils.setField(service, "maxPageLimit", 200);
+        return service;
+    }
+
+    private <T> List<Future<T>> burst(Callable<T> call) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        return results;
+    }
+
+    private void awaitSharedLoads(String query, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("products.loads", "query", query, "outcome", "shared").count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gkats.backend.services;
+
+import com.gkats.backend.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSuggestIndexTest {
+
+    private final ProductSuggestIndex index = new ProductSuggestIndex(20);
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        products.addAll(products("Phone Case", "Accessories", 1));
+        products.addAll(products("Phone Charger", "Accessories", 3));
+        products.addAll(products("Phone Stand", "Accessories", 3));
+        products.addAll(products("Photo Frame", "Photography", 5));
+        products.addAll(products("Pillow", "Home", 9));
+        index.rebuild(products);
+    }
+
+    @Test
+    void ranksMatchesByProductCountThenAlphabetically() {
+        assertThat(index.suggest("ph", 3).getNames())
+                .containsExactly("Photo Frame", "Phone Charger", "Phone Stand");
+        assertThat(index.suggest("PHONE", 10).getNames())
+                .containsExactly("Phone Charger", "Phone Stand", "Phone Case");
+        assertThat(index.suggest("p", 2).getCategories()).containsExactly("Photography");
+        assertThat(index.suggest("", 1).getNames()).isEmpty();
+    }
+
+    @Test
+    void rankingFollowsWrites() {
+        index.upsertAll(products("Phone Case", "Accessories", 10));
+        index.removeAll(List.of(4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L));
+
+        assertThat(index.suggest("ph", 3).getNames()).containsExactly("Phone Case", "Phone Charger");
+        assertThat(index.suggest("a", 3).getCategories()).containsExactly("Accessories");
+    }
+
+    @Test
+    void precomputedTopListsAndDeltasMatchAFullRanking() {
+        // Tiny limits so most prefixes use a precomputed top list, deltas outgrow its spare entries
+        // and writes cross the delta limit
+        ProductSuggestIndex small = new ProductSuggestIndex(5, 4, 12, 2);
+        Random random = new Random(42);
+        String[] words = {"alpha", "alpine", "alps", "beta", "bet", "betting", "gamma", "gambit", "game", "al"};
+        Map<Long, Product> catalog = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            catalog.put(id, randomProduct(id, words, random));
+        }
+        small.rebuild(catalog.values());
+        assertSameRanking(small, catalog, words);
+
+        for (int write = 0; write < 300; write++) {
+            long id = 1 + random.nextInt(250);
+            if (random.nextInt(4) == 0) {
+                catalog.remove(id);
+                small.remove(id);
+            } else {
+                Product product = randomProduct(id, words, random);
+                catalog.put(id, product);
+                small.upsert(product);
+            }
+            assertSameRanking(small, catalog, words);
+        }
+    }
+
+    private static Product randomProduct(long id, String[] words, Random random) {
+        return Product.builder().id(id)
+                .name(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)])
+                .category(words[random.nextInt(words.length)])
+                .build();
+    }
+
+    private static void assertSameRanking(ProductSuggestIndex index, Map<Long, Product> catalog, String[] words) {
+        for (String prefix : List.of("a", "al", "alp", "alpha ", "b", "bet", "g", "gam", "game b", "z")) {
+            for (int limit : new int[]{1, 3, 5}) {
+                assertThat(index.suggest(prefix, limit).getNames()).as("names " + prefix + " " + limit)
+                        .isEqualTo(expected(catalog.values().stream().map(Product::getName).toList(), prefix, limit));
+                assertThat(index.suggest(prefix, limit).getCategories()).as("categories " + prefix + " " + limit)
+                        .isEqualTo(expected(catalog.values().stream().map(Product::getCategory).toList(), prefix, limit));
+            }
+        }
+    }
+
+    private static List<String> expected(List<String> values, String prefix, int limit) {
+        Map<String, Long> counts = values.stream()
+                .filter(value -> value.toLowerCase(Locale.ROOT).startsWith(prefix.trim()))
+                .collect(Collectors.groupingBy(value -> value, Collectors.counting()));
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private List<Product> products(String name, String category, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder().id(nextId++).name(name).category(category).build());
+        }
+        return products;
+    }
+}